@@ -0,0 +1,92 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Детерминированный набор данных для бенчмарков, загружаемый пакетами через JDBC.
+ * Размеры остальных таблиц выводятся из числа бронирований: вещей в 10 раз меньше,
+ * пользователей в 100 раз меньше (но не меньше 100), запрос есть у каждой десятой вещи.
+ * Идентификаторы присваиваются базой подряд с 1, поэтому связи считаются по номеру строки.
+ * Вещам id задаются явно: их последовательность выдает номера блоками, после загрузки она сдвигается.
+ */
+@Getter
+public class BenchmarkDataset {
+    private static final int BATCH_SIZE = 10_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    private final int bookings;
+    private final int items;
+    private final int users;
+    private final int requests;
+
+    public BenchmarkDataset(int bookings) {
+        this.bookings = bookings;
+        this.items = Math.max(10, bookings / 10);
+        this.users = Math.max(100, bookings / 100);
+        this.requests = Math.max(1, items / 10);
+    }
+
+    public void load(JdbcTemplate jdbcTemplate) {
+        insert(jdbcTemplate, "insert into users (name, email) values (?, ?)", users,
+                i -> new Object[]{"user " + i, "user" + i + "@shareit.ru"});
+        insert(jdbcTemplate, "insert into requests (description, requester_id, created) values (?, ?, ?)", requests,
+                i -> new Object[]{"запрос " + i, userId(i), Timestamp.valueOf(BASE.plusMinutes(i))});
+        insert(jdbcTemplate, "insert into items (id, name, description, available, owner_id, request_id) " +
+                        "values (?, ?, ?, ?, ?, ?)", items,
+                i -> new Object[]{(long) i, "вещь " + i, "описание вещи " + i, i % 7 != 0, ownerOf(i),
+                        i % 10 == 0 && i / 10 <= requests ? (long) i / 10 : null});
+        jdbcTemplate.execute("alter sequence items_seq restart with " + (items + 50));
+        insert(jdbcTemplate, "insert into bookings (start_time, end_time, item_id, booker_id, status) " +
+                        "values (?, ?, ?, ?, ?)", bookings,
+                i -> {
+                    long itemId = itemOf(i);
+                    return new Object[]{Timestamp.valueOf(BASE.plusHours(i)), Timestamp.valueOf(BASE.plusHours(i + 1)),
+                            itemId, bookerOf(itemId), i % 3 == 0 ? "WAITING" : "APPROVED"};
+                });
+        // ссылки вещей на последнее и следующее подтвержденные бронирования, как их заполняет V4
+        jdbcTemplate.update("update items " +
+                "set last_booking_id = (select b.id from bookings b where b.item_id = items.id " +
+                "and b.status = 'APPROVED' and b.start_time < localtimestamp order by b.end_time desc limit 1), " +
+                "next_booking_id = (select b.id from bookings b where b.item_id = items.id " +
+                "and b.status = 'APPROVED' and b.start_time > localtimestamp order by b.start_time limit 1)");
+        insert(jdbcTemplate, "insert into comments (text, author_id, item_id, created) values (?, ?, ?, ?)", items / 10,
+                i -> {
+                    long itemId = i * 10L;
+                    return new Object[]{"отзыв " + i, bookerOf(itemId), itemId, Timestamp.valueOf(BASE.plusMinutes(i))};
+                });
+    }
+
+    public long userId(int row) {
+        return (row - 1L) % users + 1;
+    }
+
+    public long ownerOf(long itemId) {
+        return (itemId - 1) % users + 1;
+    }
+
+    public long bookerOf(long itemId) {
+        return ownerOf(itemId) % users + 1;
+    }
+
+    public long itemOf(long bookingId) {
+        return (bookingId - 1) % items + 1;
+    }
+
+    private void insert(JdbcTemplate jdbcTemplate, String sql, int rows, IntFunction<Object[]> row) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(row.apply(i));
+            if (batch.size() == BATCH_SIZE || i == rows) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+}
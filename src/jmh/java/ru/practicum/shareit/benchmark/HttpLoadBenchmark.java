@@ -0,0 +1,98 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность HTTP при 1000 одновременных клиентах: пул потоков Tomcat
+ * против виртуальных потоков. Вариант virtual=true требует Java 21.
+ * Кэш списков бронирований отключен, чтобы запросы доходили до БД. Оба режима принимают
+ * одинаковое число одновременных запросов (200) при одном пуле соединений.
+ * Ограничение: БД - H2 в памяти того же процесса, сетевого ожидания JDBC нет, поэтому
+ * выигрыш виртуальных потоков на блокирующем вводе-выводе здесь почти не проявляется, и
+ * выводы о нем по результатам этого бенчмарка делать нельзя.
+ * Запуск: mvn -Pbenchmark,jdk21 test-compile exec:exec -Djmh.includes=HttpLoadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(1000)
+public class HttpLoadBenchmark {
+
+    private static final int MAX_CONCURRENT_REQUESTS = 200;
+
+    @Param({"false", "true"})
+    private boolean virtual;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String base;
+    private int users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--server.tomcat.accept-count=1000",
+                        "--server.tomcat.threads.max=" + MAX_CONCURRENT_REQUESTS,
+                        "--shareit.threads.max-concurrent-requests=" + MAX_CONCURRENT_REQUESTS,
+                        "--shareit.threads.virtual=" + virtual,
+                        "--shareit.bookings.cache.maximum-size=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load" + virtual + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        BenchmarkDataset dataset = new BenchmarkDataset(100000);
+        dataset.load(context.getBean(JdbcTemplate.class));
+        users = dataset.getUsers();
+        base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int itemListByOwner() throws IOException, InterruptedException {
+        return get("/items?from=0&size=20");
+    }
+
+    @Benchmark
+    public int bookingsByBooker() throws IOException, InterruptedException {
+        return get("/bookings?state=ALL&from=" + ThreadLocalRandom.current().nextInt(5) * 20 + "&size=20");
+    }
+
+    // разные пользователи и страницы, чтобы запросы доходили до БД, а не до кэшей
+    private int get(String path) throws IOException, InterruptedException {
+        long userId = ThreadLocalRandom.current().nextInt(users) + 1L;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .GET()
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Неожиданный статус ответа " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Мапперы и сериализация в JSON страницы вещей и бронирований без обращения к БД.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.includes=MappingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private List<Item> items;
+    private List<Booking> bookings;
+    private List<ItemDto> itemDtos;
+    private List<BookingDto> bookingDtos;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(1L).name("Oleg").email("oleg@email.com").build();
+        User booker = User.builder().id(2L).name("Roman").email("roman@email.com").build();
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 10, 0);
+        items = new ArrayList<>(pageSize);
+        bookings = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            Item item = Item.builder()
+                    .id(i)
+                    .name("вещь " + i)
+                    .description("описание вещи " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build();
+            items.add(item);
+            bookings.add(Booking.builder()
+                    .id(i)
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 1))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        itemDtos = ItemMapper.getListItemDto(items);
+        bookingDtos = BookingMapper.getListOfBookingDto(bookings);
+    }
+
+    @Benchmark
+    public List<ItemDto> mapItems() {
+        return ItemMapper.getListItemDto(items);
+    }
+
+    @Benchmark
+    public List<BookingDto> mapBookings() {
+        return BookingMapper.getListOfBookingDto(bookings);
+    }
+
+    @Benchmark
+    public String serializeItems() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(itemDtos);
+    }
+
+    @Benchmark
+    public String serializeBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(bookingDtos);
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение через сервисный слой на H2 в памяти с заранее загруженными данными разного объема.
+ * Изменяющие методы (создание бронирований, вещей, пользователей) не измеряются:
+ * они меняют набор данных между итерациями.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.includes=ServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int bookings;
+
+    private ConfigurableApplicationContext context;
+    private BenchmarkDataset dataset;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private ItemRequestService itemRequestService;
+    private UserService userService;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark" + bookings + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        dataset = new BenchmarkDataset(bookings);
+        dataset.load(context.getBean(JdbcTemplate.class));
+
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+        userService = context.getBean(UserService.class);
+        itemId = dataset.getItems() / 2;
+        ownerId = dataset.ownerOf(itemId);
+        bookerId = dataset.bookerOf(itemId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> itemListByOwner() {
+        return itemService.getItemListByUserId(ownerId, 0, 20);
+    }
+
+    @Benchmark
+    public ItemDto itemByOwner() {
+        return itemService.getItemByUserId(itemId, ownerId);
+    }
+
+    @Benchmark
+    public List<ItemDto> search() {
+        return itemService.search("вещь 12", 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsByBooker() {
+        return bookingService.findByBooker(bookerId, BookingState.ALL, 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingDto> pastBookingsByBooker() {
+        return bookingService.findByBooker(bookerId, BookingState.PAST, 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsByOwner() {
+        return bookingService.findByOwner(ownerId, BookingState.ALL, 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingDto> waitingBookingsByOwner() {
+        return bookingService.findByOwner(ownerId, BookingState.WAITING, 0, 20);
+    }
+
+    @Benchmark
+    public BookingDto bookingById() {
+        return bookingService.findBookingByUserId(3L, dataset.bookerOf(dataset.itemOf(3L)));
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> allItemRequests() {
+        return itemRequestService.getAllItemRequests(ownerId, 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> itemRequestsByRequester() {
+        return itemRequestService.getAllItemRequestByUserId(1L);
+    }
+
+    @Benchmark
+    public ItemRequestDto itemRequestById() {
+        return itemRequestService.getItemRequestById(1L, ownerId);
+    }
+
+    @Benchmark
+    public UserDto userById() {
+        return userService.getUserById(ownerId);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость проверки сущности после PATCH: создание ValidatorFactory на каждый вызов (как было)
+ * против общего Validator (как в PatchValidator).
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.includes=ValidatorBenchmark,
+ * для профиля аллокаций добавить -prof gc в аргументы JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private ValidatorFactory sharedFactory;
+    private Validator sharedValidator;
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        sharedFactory = Validation.buildDefaultValidatorFactory();
+        sharedValidator = sharedFactory.getValidator();
+        item = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(User.builder().id(1L).name("Oleg").email("oleg@email.com").build())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sharedFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Item>> factoryPerCall() {
+        // закрываем фабрику, чтобы прогон не упал из-за утечки памяти
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            return factory.getValidator().validate(item);
+        }
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Item>> sharedValidator() {
+        return sharedValidator.validate(item);
+    }
+}
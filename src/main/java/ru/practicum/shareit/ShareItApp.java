@@ -2,8 +2,11 @@ package ru.practicum.shareit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.config.HibernateCacheConfig;
 
 @SpringBootApplication
+@Import(HibernateCacheConfig.class)
 public class ShareItApp {
 
 	public static void main(String[] args) {
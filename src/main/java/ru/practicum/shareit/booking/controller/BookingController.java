@@ -2,16 +2,25 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBulkRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingExport;
+import ru.practicum.shareit.booking.service.BookingExportFormat;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.Cursor;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -37,6 +46,14 @@ public class BookingController {
         return bookingService.updateBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping(path = "/bulk")
+    public List<BookingBulkResultDto> updateBookings(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                     @RequestParam(value = "approved") Boolean approved,
+                                                     @Valid @RequestBody BookingBulkRequestDto bookingBulkRequestDto) {
+        log.info("Массовое обновление бронирований для пользователя с id " + userId);
+        return bookingService.updateBookings(bookingBulkRequestDto.getIds(), userId, approved);
+    }
+
     @GetMapping(path = "/{bookingId}")
     public BookingDto findBookingByUserId(@PathVariable Long bookingId,
                                           @RequestHeader(value = "X-Sharer-User-Id") Long userId) {
@@ -45,24 +62,55 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> findByBooker(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
-                                         @RequestParam(defaultValue = "ALL") BookingState state,
-                                         @RequestParam(defaultValue = "0")
-                                         @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0")
-                                         int from,
-                                         @RequestParam(defaultValue = "20")
-                                         @Positive(message = "Размер страницы должен быть значением > 0")
-                                         int size) {
+    public ResponseEntity<List<BookingDto>> findByBooker(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                         @RequestParam(defaultValue = "ALL") BookingState state,
+                                                         @RequestParam(defaultValue = "0")
+                                                         @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0")
+                                                         int from,
+                                                         @RequestParam(defaultValue = "20")
+                                                         @Positive(message = "Размер страницы должен быть значением > 0")
+                                                         int size,
+                                                         @RequestParam(required = false) String cursor) {
         log.info("Получен список всех бронирований пользователя с id " + userId);
-        return bookingService.findByBooker(userId, state, from, size);
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.findByBooker(userId, state, from, size)
+                : bookingService.findByBooker(userId, state, Cursor.decode(cursor), size);
+        return Cursor.withNextCursor(bookings, size, booking -> new Cursor(booking.getStart(), booking.getId()));
     }
 
     @GetMapping(path = "/owner")
-    public List<BookingDto> findByOwner(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
-                                        @RequestParam(defaultValue = "ALL") BookingState state,
-                                        @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0") int from,
-                                        @RequestParam(defaultValue = "20") @Positive(message = "Размер страницы должен быть значением > 0") int size) {
+    public ResponseEntity<List<BookingDto>> findByOwner(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                        @RequestParam(defaultValue = "ALL") BookingState state,
+                                                        @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0") int from,
+                                                        @RequestParam(defaultValue = "20") @Positive(message = "Размер страницы должен быть значением > 0") int size,
+                                                        @RequestParam(required = false) String cursor) {
         log.info("Получен список всех бронирований для всех вещей пользователя с id " + userId);
-        return bookingService.findByOwner(userId, state, from, size);
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.findByOwner(userId, state, from, size)
+                : bookingService.findByOwner(userId, state, Cursor.decode(cursor), size);
+        return Cursor.withNextCursor(bookings, size, booking -> new Cursor(booking.getStart(), booking.getId()));
+    }
+
+    @GetMapping(path = "/export")
+    public void exportByBooker(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                               @RequestParam(defaultValue = "NDJSON") BookingExportFormat format,
+                               HttpServletResponse response) throws IOException {
+        log.info("Выгрузка всех бронирований пользователя с id " + userId);
+        writeExport(bookingService.exportByBooker(userId, format), format, response);
+    }
+
+    @GetMapping(path = "/owner/export")
+    public void exportByOwner(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                              @RequestParam(defaultValue = "NDJSON") BookingExportFormat format,
+                              HttpServletResponse response) throws IOException {
+        log.info("Выгрузка всех бронирований для вещей пользователя с id " + userId);
+        writeExport(bookingService.exportByOwner(userId, format), format, response);
+    }
+
+    private void writeExport(BookingExport export, BookingExportFormat format,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType(format.getMediaType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=bookings." + format.getExtension());
+        export.writeTo(response.getOutputStream());
     }
 }
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.ReactiveBookingRepository;
+import ru.practicum.shareit.exceptions.ModelNotFoundException;
+import ru.practicum.shareit.user.repository.ReactiveUserRepository;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+@RestController
+@Validated
+@Profile("reactive")
+@RequestMapping("/reactive/bookings")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveBookingController {
+    private final ReactiveBookingRepository bookingRepository;
+    private final ReactiveUserRepository userRepository;
+    private final Clock clock;
+
+    @GetMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public Flux<BookingDto> findByBooker(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                         @RequestParam(defaultValue = "ALL") BookingState state,
+                                         @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0") int from,
+                                         @RequestParam(defaultValue = "20") @Positive(message = "Размер страницы должен быть значением > 0") int size) {
+        log.info("Получен список всех бронирований пользователя с id " + userId);
+        return findBookings(BookingFilter.Role.BOOKER, userId, state, from, size);
+    }
+
+    @GetMapping(path = "/owner", produces = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public Flux<BookingDto> findByOwner(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                        @RequestParam(defaultValue = "ALL") BookingState state,
+                                        @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0") int from,
+                                        @RequestParam(defaultValue = "20") @Positive(message = "Размер страницы должен быть значением > 0") int size) {
+        log.info("Получен список всех бронирований для всех вещей пользователя с id " + userId);
+        return findBookings(BookingFilter.Role.OWNER, userId, state, from, size);
+    }
+
+    private Flux<BookingDto> findBookings(BookingFilter.Role role, Long userId, BookingState state, int from,
+                                          int size) {
+        BookingFilter filter = BookingFilter.builder()
+                .role(role)
+                .userId(userId)
+                .state(state)
+                .now(LocalDateTime.now(clock))
+                .offset(PageRequest.of(from / size, size).getOffset())
+                .size(size)
+                .build();
+        return userRepository.existsById(userId)
+                .flatMapMany(exists -> exists
+                        ? bookingRepository.findAll(filter)
+                        : Flux.error(new ModelNotFoundException("Неверный ID пользователя.")));
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры выборки бронирований: чьи бронирования (автора или владельца вещей), состояние,
+ * момент времени, относительно которого считаются PAST/FUTURE/CURRENT, и страница -
+ * по смещению или после курсора.
+ */
+@Getter
+@Builder
+public class BookingFilter {
+
+    public enum Role {
+        BOOKER, OWNER
+    }
+
+    private final Role role;
+    private final Long userId;
+    private final BookingState state;
+    private final LocalDateTime now;
+    private final Cursor cursor;
+    private final long offset;
+    private final int size;
+}
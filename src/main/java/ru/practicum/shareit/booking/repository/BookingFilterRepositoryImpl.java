@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exceptions.InvalidBookingException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Одна выборка бронирований для всех сочетаний роли и состояния. Значения передаются только
+ * параметрами, поэтому для каждого сочетания получается один и тот же SQL, а порядок
+ * (start desc, id desc) совпадает с индексами idx_bookings_booker_start и idx_bookings_item_start.
+ */
+public class BookingFilterRepositoryImpl implements BookingFilterRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<BookingDto> findAll(BookingFilter filter) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        ParameterExpression<Long> userId = cb.parameter(Long.class, "userId");
+        ParameterExpression<LocalDateTime> now = cb.parameter(LocalDateTime.class, "now");
+        ParameterExpression<BookingStatus> status = cb.parameter(BookingStatus.class, "status");
+        ParameterExpression<LocalDateTime> cursorStart = cb.parameter(LocalDateTime.class, "cursorStart");
+        ParameterExpression<Long> cursorId = cb.parameter(Long.class, "cursorId");
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(filter.getRole() == BookingFilter.Role.BOOKER
+                ? cb.equal(booker.get("id"), userId)
+                : cb.equal(item.get("owner").get("id"), userId));
+        boolean timed = false;
+        BookingStatus statusValue = null;
+        switch (filter.getState()) {
+            case ALL:
+                break;
+            case PAST:
+                where.add(cb.lessThan(end, now));
+                timed = true;
+                break;
+            case FUTURE:
+                where.add(cb.greaterThan(start, now));
+                timed = true;
+                break;
+            case CURRENT:
+                where.add(cb.lessThan(start, now));
+                where.add(cb.greaterThan(end, now));
+                timed = true;
+                break;
+            case WAITING:
+                statusValue = BookingStatus.WAITING;
+                where.add(cb.equal(booking.get("status"), status));
+                break;
+            case REJECTED:
+                statusValue = BookingStatus.REJECTED;
+                where.add(cb.equal(booking.get("status"), status));
+                break;
+            default:
+                throw new InvalidBookingException("Unknown state: " + filter.getState());
+        }
+        if (filter.getCursor() != null) {
+            where.add(cb.or(cb.lessThan(start, cursorStart),
+                    cb.and(cb.equal(start, cursorStart), cb.lessThan(id, cursorId))));
+        }
+
+        query.select(cb.construct(BookingDto.class, id, start, end, booking.get("status"),
+                        item.get("id"), item.get("name"), booker.get("id"), booker.get("name")))
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        TypedQuery<BookingDto> typedQuery = em.createQuery(query)
+                .setParameter(userId, filter.getUserId())
+                .setMaxResults(filter.getSize());
+        if (timed) {
+            typedQuery.setParameter(now, filter.getNow());
+        }
+        if (statusValue != null) {
+            typedQuery.setParameter(status, statusValue);
+        }
+        if (filter.getCursor() != null) {
+            typedQuery.setParameter(cursorStart, filter.getCursor().requireTime())
+                    .setParameter(cursorId, filter.getCursor().getId());
+        } else {
+            typedQuery.setFirstResult((int) filter.getOffset());
+        }
+        return typedQuery.getResultList();
+    }
+}
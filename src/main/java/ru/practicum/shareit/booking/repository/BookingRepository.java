@@ -1,45 +1,76 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-@Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long userId, Pageable page);
-
-    List<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Long userId, LocalDateTime now, Pageable page);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    List<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(Long userId, LocalDateTime now, Pageable page);
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingFilterRepository {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long userId, LocalDateTime now,
-                                                                                 LocalDateTime now1, Pageable page);
+    @EntityGraph(attributePaths = "item")
+    List<Booking> findAllByIdIn(Collection<Long> ids);
 
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long userId, BookingStatus bookingStatus, Pageable page);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?1 where b.id in ?2 and b.status = ?3")
+    int updateStatusByIdIn(BookingStatus status, Collection<Long> ids, BookingStatus expected);
 
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long bookerId, Pageable page);
+    @Query("select b.id from Booking b where b.id in ?1 and b.status = ?2")
+    List<Long> findIdsByIdInAndStatus(Collection<Long> ids, BookingStatus status);
 
-    List<Booking> findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime now, Pageable page);
+    String BOOKING_DTO_SELECT = "select new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name) " +
+            "from Booking b join b.item i join b.booker u ";
 
-    List<Booking> findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(Long bookerId, LocalDateTime now, Pageable page);
+    String EXPORT_FETCH_SIZE = "500";
 
-    List<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long bookerId, LocalDateTime now,
-                                                                                    LocalDateTime now1, Pageable page);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(BOOKING_DTO_SELECT + "where u.id = ?1 order by b.start desc, b.id desc")
+    Stream<BookingDto> streamAllByBookerId(Long userId);
 
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus bookingStatus, Pageable page);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(BOOKING_DTO_SELECT + "where i.owner.id = ?1 order by b.start desc, b.id desc")
+    Stream<BookingDto> streamAllByItemOwnerId(Long userId);
 
     Optional<Booking> findTopByItemIdAndStatusAndStartIsAfterOrderByStart(Long itemId, BookingStatus bookingStatus, LocalDateTime now);
 
     Optional<Booking> findTopByItemIdAndStatusAndStartIsBeforeOrderByEndDesc(Long itemId, BookingStatus bookingStatus, LocalDateTime now);
 
-    List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(Long userId, Long itemId, BookingStatus approved,
-                                                                          LocalDateTime now);
-
+    boolean existsByBookerIdAndItemIdAndStatusAndEndIsBefore(Long userId, Long itemId, BookingStatus status,
+                                                             LocalDateTime now);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.start < ?3 and b.end > ?4")
+    boolean existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                                   LocalDateTime end, LocalDateTime start);
+
+    @Query("select b from Booking b " +
+            "where b.item.id in :itemIds and b.status = :status and b.start < :now " +
+            "and b.end = (select max(lb.end) from Booking lb " +
+            "where lb.item.id = b.item.id and lb.status = :status and lb.start < :now)")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
+
+    @Query("select b from Booking b " +
+            "where b.item.id in :itemIds and b.status = :status " +
+            "and b.start = (select min(nb.start) from Booking nb " +
+            "where nb.item.id = b.item.id and nb.status = :status and nb.start > :now)")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
 }
 
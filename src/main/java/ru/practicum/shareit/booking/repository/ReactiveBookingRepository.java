@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.repository;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exceptions.InvalidBookingException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Чтение бронирований через R2DBC с теми же условиями и порядком (start desc, id desc),
+ * что и BookingFilterRepositoryImpl.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveBookingRepository {
+
+    private static final String SELECT = "select b.id, b.start_time, b.end_time, b.status, " +
+            "i.id as item_id, i.name as item_name, u.id as booker_id, u.name as booker_name " +
+            "from bookings b " +
+            "join items i on i.id = b.item_id " +
+            "join users u on u.id = b.booker_id ";
+
+    private final DatabaseClient client;
+
+    public Flux<BookingDto> findAll(BookingFilter filter) {
+        StringBuilder sql = new StringBuilder(SELECT)
+                .append(filter.getRole() == BookingFilter.Role.BOOKER
+                        ? "where b.booker_id = :userId"
+                        : "where i.owner_id = :userId");
+        boolean timed = false;
+        BookingStatus status = null;
+        switch (filter.getState()) {
+            case ALL:
+                break;
+            case PAST:
+                sql.append(" and b.end_time < :now");
+                timed = true;
+                break;
+            case FUTURE:
+                sql.append(" and b.start_time > :now");
+                timed = true;
+                break;
+            case CURRENT:
+                sql.append(" and b.start_time < :now and b.end_time > :now");
+                timed = true;
+                break;
+            case WAITING:
+                status = BookingStatus.WAITING;
+                sql.append(" and b.status = :status");
+                break;
+            case REJECTED:
+                status = BookingStatus.REJECTED;
+                sql.append(" and b.status = :status");
+                break;
+            default:
+                throw new InvalidBookingException("Unknown state: " + filter.getState());
+        }
+        sql.append(" order by b.start_time desc, b.id desc limit :size offset :offset");
+
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString())
+                .bind("userId", filter.getUserId())
+                .bind("size", filter.getSize())
+                .bind("offset", filter.getOffset());
+        if (timed) {
+            spec = spec.bind("now", filter.getNow());
+        }
+        if (status != null) {
+            spec = spec.bind("status", status.name());
+        }
+        return spec.map(ReactiveBookingRepository::toBookingDto).all();
+    }
+
+    private static BookingDto toBookingDto(Row row) {
+        return new BookingDto(row.get("id", Long.class),
+                row.get("start_time", LocalDateTime.class),
+                row.get("end_time", LocalDateTime.class),
+                BookingStatus.valueOf(row.get("status", String.class)),
+                row.get("item_id", Long.class),
+                row.get("item_name", String.class),
+                row.get("booker_id", Long.class),
+                row.get("booker_name", String.class));
+    }
+}
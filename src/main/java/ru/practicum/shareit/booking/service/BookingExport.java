@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Отложенная выгрузка бронирований: строки читаются из БД и пишутся в поток по одной,
+ * поэтому расход памяти не зависит от размера истории.
+ */
+@FunctionalInterface
+public interface BookingExport {
+
+    void writeTo(OutputStream output) throws IOException;
+}
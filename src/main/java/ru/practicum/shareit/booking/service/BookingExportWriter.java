@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class BookingExportWriter {
+    private static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId,bookerName";
+
+    private final Writer writer;
+    private final BookingExportFormat format;
+    private final ObjectMapper objectMapper;
+
+    BookingExportWriter(OutputStream output, BookingExportFormat format, ObjectMapper objectMapper) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == BookingExportFormat.CSV) {
+            writeLine(CSV_HEADER);
+        }
+    }
+
+    void write(BookingDto booking) {
+        writeLine(format == BookingExportFormat.CSV ? toCsv(booking) : toJson(booking));
+    }
+
+    void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toJson(BookingDto booking) {
+        try {
+            return objectMapper.writeValueAsString(booking);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать бронирование " + booking.getId(), e);
+        }
+    }
+
+    private String toCsv(BookingDto booking) {
+        return String.join(",",
+                String.valueOf(booking.getId()),
+                String.valueOf(booking.getStart()),
+                String.valueOf(booking.getEnd()),
+                String.valueOf(booking.getStatus()),
+                String.valueOf(booking.getItem().getId()),
+                quote(booking.getItem().getName()),
+                String.valueOf(booking.getBooker().getId()),
+                quote(booking.getBooker().getName()));
+    }
+
+    private void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.item.service.ItemRenamedEvent;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кратковременный кэш списков бронирований для частых опросов клиентов.
+ * Запрос выполняется с настоящим моментом времени, а в ключ попадает начало интервала,
+ * поэтому запросы внутри интервала совпадают: результат PAST/FUTURE/CURRENT может отставать
+ * от текущего времени не более чем на длину интервала.
+ * При изменении бронирований пользователю выдается новое поколение: старые записи
+ * перестают находиться и вытесняются по времени жизни. Переименование вещи или пользователя
+ * и удаление пользователя (бронирования удаляются каскадом) после коммита меняют общую эпоху,
+ * и весь кэш перестает находиться.
+ */
+@Component
+public class BookingQueryCache {
+
+    private final long bucketMillis;
+    private final Cache<Key, List<BookingDto>> results;
+    private final Cache<Long, Long> generations;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong epoch = new AtomicLong();
+
+    public BookingQueryCache(@Value("${shareit.bookings.cache.bucket:5s}") Duration bucket,
+                             @Value("${shareit.bookings.cache.maximum-size:10000}") long maximumSize) {
+        this.bucketMillis = bucket.toMillis();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(bucket.multipliedBy(2))
+                .build();
+        // номера поколений не повторяются, поэтому вытесненное поколение не вернет старые записи
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(bucket.multipliedBy(2))
+                .build();
+    }
+
+    public List<BookingDto> get(BookingFilter filter, Supplier<List<BookingDto>> query) {
+        Key key = new Key(filter.getRole(), filter.getUserId(), filter.getState(), bucket(filter.getNow()),
+                filter.getOffset(), filter.getSize(),
+                filter.getCursor() == null ? null : filter.getCursor().getTime(),
+                filter.getCursor() == null ? null : filter.getCursor().getId(),
+                generation(filter.getUserId()), epoch.get());
+        return results.get(key, k -> List.copyOf(query.get()));
+    }
+
+    public void evict(Collection<Long> userIds) {
+        Runnable evict = () -> userIds.forEach(userId -> generations.put(userId, sequence.incrementAndGet()));
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // повторно после коммита: чтение, начатое до коммита, могло закэшировать старые данные
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemRenamed(ItemRenamedEvent event) {
+        epoch.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        epoch.incrementAndGet();
+    }
+
+    private long generation(Long userId) {
+        return generations.get(userId, id -> sequence.incrementAndGet());
+    }
+
+    private long bucket(LocalDateTime now) {
+        long millis = now.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return millis - millis % bucketMillis;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final BookingFilter.Role role;
+        private final Long userId;
+        private final BookingState state;
+        private final long bucket;
+        private final long offset;
+        private final int size;
+        private final LocalDateTime cursorTime;
+        private final Long cursorId;
+        private final long generation;
+        private final long epoch;
+    }
+}
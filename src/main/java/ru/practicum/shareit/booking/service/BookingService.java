@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.List;
 
@@ -12,9 +14,19 @@ public interface BookingService {
 
     BookingDto updateBooking(Long id, Long userId, Boolean approved);
 
+    List<BookingBulkResultDto> updateBookings(List<Long> ids, Long userId, Boolean approved);
+
     BookingDto findBookingByUserId(Long id, Long userId);
 
     List<BookingDto> findByBooker(Long userId, BookingState state, int from, int size);
 
     List<BookingDto> findByOwner(Long userId, BookingState state, int from, int size);
+
+    List<BookingDto> findByBooker(Long userId, BookingState state, Cursor cursor, int size);
+
+    List<BookingDto> findByOwner(Long userId, BookingState state, Cursor cursor, int size);
+
+    BookingExport exportByBooker(Long userId, BookingExportFormat format);
+
+    BookingExport exportByOwner(Long userId, BookingExportFormat format);
 }
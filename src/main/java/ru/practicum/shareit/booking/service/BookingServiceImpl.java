@@ -1,27 +1,40 @@
 package ru.practicum.shareit.booking.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.InvalidBookingException;
 import ru.practicum.shareit.exceptions.ModelNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingsRefresher;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.io.UncheckedIOException;
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.booking.mapper.BookingMapper.*;
 import static ru.practicum.shareit.booking.model.BookingStatus.*;
@@ -31,16 +44,22 @@ import static ru.practicum.shareit.booking.model.BookingStatus.*;
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(WAITING, APPROVED);
+
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
-    private final Sort sort = Sort.by(Sort.Direction.DESC, "end");
+    private final ItemBookingsRefresher itemBookingsRefresher;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final BookingQueryCache bookingQueryCache;
+    private final Clock clock;
 
     @Override
     @Transactional
     public BookingDto createBooking(Long userId, BookingRequestDto bookingRequestDto) {
         User booker = getUserById(userId);
-        Item item = getItemById(bookingRequestDto.getItemId());
+        Item item = getItemByIdForUpdate(bookingRequestDto.getItemId());
         if (item.getOwner().getId().equals(userId)) {
             throw new ModelNotFoundException("Невозможно забронировать вещь");
         }
@@ -48,18 +67,29 @@ public class BookingServiceImpl implements BookingService {
             throw new InvalidBookingException("Вещь c id " + item.getId() + " недоступна для бронирования");
         }
 
+        checkSlotIsFree(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd());
+
         Booking booking = toBooking(bookingRequestDto, booker, item);
         booking.setStatus(WAITING);
+        try {
+            booking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidBookingException("Вещь c id " + item.getId() + " уже забронирована на этот период");
+        }
+        bookingQueryCache.evict(List.of(userId, item.getOwner().getId()));
         log.info("Бронирование для пользователя с id " + userId + " создано");
-        return toBookingDto(bookingRepository.save(booking));
+        return toBookingDto(booking);
     }
 
     @Override
     @Transactional
     public BookingDto updateBooking(Long id, Long userId, Boolean approved) {
         Booking booking = getBookingById(id);
+        // блокировка вещи: параллельные подтверждения иначе перезапишут друг другу next_booking
+        getItemByIdForUpdate(booking.getItem().getId());
+        LocalDateTime now = LocalDateTime.now(clock);
 
-        if (!booking.getItem().getOwner().getId().equals(userId) || booking.getStart().isBefore(LocalDateTime.now())) {
+        if (!booking.getItem().getOwner().getId().equals(userId) || booking.getStart().isBefore(now)) {
             throw new ModelNotFoundException("Невозможно забронировать вещь");
         }
         if (!booking.getStatus().equals(WAITING)) {
@@ -70,8 +100,67 @@ public class BookingServiceImpl implements BookingService {
         } else {
             booking.setStatus(REJECTED);
         }
+        booking = bookingRepository.save(booking);
+        itemBookingsRefresher.refresh(booking.getItem(), now);
+        bookingQueryCache.evict(List.of(userId, booking.getBooker().getId()));
         log.info("Обновление бронирования для пользователя с id " + userId);
-        return toBookingDto(bookingRepository.save(booking));
+        return toBookingDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBulkResultDto> updateBookings(List<Long> ids, Long userId, Boolean approved) {
+        getUserById(userId);
+        BookingStatus status = approved ? APPROVED : REJECTED;
+        LocalDateTime now = LocalDateTime.now(clock);
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(requestedIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<Long, String> errors = new HashMap<>();
+        List<Booking> waiting = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Booking booking = bookings.get(id);
+            if (booking == null) {
+                errors.put(id, "Бронирование на найдено!.");
+            } else if (!booking.getItem().getOwner().getId().equals(userId) || booking.getStart().isBefore(now)) {
+                errors.put(id, "Невозможно забронировать вещь");
+            } else if (!booking.getStatus().equals(WAITING)) {
+                errors.put(id, "Невозможно изменить статус бронирования.");
+            } else {
+                waiting.add(booking);
+            }
+        }
+
+        if (approved) {
+            waiting.stream()
+                    .map(booking -> booking.getItem().getId())
+                    .distinct()
+                    .sorted()
+                    .forEach(this::getItemByIdForUpdate);
+        }
+        Set<Long> updated = updateWaitingStatuses(waiting, status);
+        Set<Long> itemIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>(Set.of(userId));
+        for (Booking booking : waiting) {
+            if (!updated.contains(booking.getId())) {
+                errors.put(booking.getId(), "Невозможно изменить статус бронирования.");
+                continue;
+            }
+            userIds.add(booking.getBooker().getId());
+            if (approved) {
+                itemIds.add(booking.getItem().getId());
+            }
+        }
+        itemRepository.findAllById(itemIds).forEach(item -> itemBookingsRefresher.refresh(item, now));
+        bookingQueryCache.evict(userIds);
+
+        log.info("Пользователь с id " + userId + " обновил статус у " + updated.size() + " бронирований");
+        return requestedIds.stream()
+                .map(id -> updated.contains(id)
+                        ? new BookingBulkResultDto(id, status, null)
+                        : new BookingBulkResultDto(id, null, errors.get(id)))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -89,69 +178,107 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public List<BookingDto> findByBooker(Long userId, BookingState state, int from, int size) {
-        getUserById(userId);
-
-        List<Booking> bookings;
-        Pageable page = PageRequest.of(from / size, size, sort);
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(userId, LocalDateTime.now(), page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(userId, LocalDateTime.now(), page);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(), LocalDateTime.now(), page);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, WAITING, page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, REJECTED, page);
-                break;
-            default:
-                throw new InvalidBookingException("Unknown state: " + state);
-        }
+        List<BookingDto> bookings = findBookings(filter(BookingFilter.Role.BOOKER, userId, state, size)
+                .offset(PageRequest.of(from / size, size).getOffset()));
         log.info("Получен список всех бронирований пользователя с id " + userId);
-        return getListOfBookingDto(bookings);
+        return bookings;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<BookingDto> findByOwner(Long userId, BookingState state, int from, int size) {
+        List<BookingDto> bookings = findBookings(filter(BookingFilter.Role.OWNER, userId, state, size)
+                .offset(PageRequest.of(from / size, size).getOffset()));
+        log.info("Получен список всех бронирований для всех вещей пользователя с id " + userId);
+        return bookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findByBooker(Long userId, BookingState state, Cursor cursor, int size) {
+        List<BookingDto> bookings = findBookings(filter(BookingFilter.Role.BOOKER, userId, state, size)
+                .cursor(cursor));
+        log.info("Получена страница бронирований пользователя с id " + userId + " после курсора");
+        return bookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findByOwner(Long userId, BookingState state, Cursor cursor, int size) {
+        List<BookingDto> bookings = findBookings(filter(BookingFilter.Role.OWNER, userId, state, size)
+                .cursor(cursor));
+        log.info("Получена страница бронирований для вещей пользователя с id " + userId + " после курсора");
+        return bookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingExport exportByBooker(Long userId, BookingExportFormat format) {
+        getUserById(userId);
+        log.info("Выгрузка бронирований пользователя с id " + userId);
+        return export(() -> bookingRepository.streamAllByBookerId(userId), format);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingExport exportByOwner(Long userId, BookingExportFormat format) {
         getUserById(userId);
+        log.info("Выгрузка бронирований для вещей пользователя с id " + userId);
+        return export(() -> bookingRepository.streamAllByItemOwnerId(userId), format);
+    }
+
+    private BookingExport export(Supplier<Stream<BookingDto>> query, BookingExportFormat format) {
+        return output -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            try {
+                transaction.executeWithoutResult(status -> {
+                    BookingExportWriter writer = new BookingExportWriter(output, format, objectMapper);
+                    try (Stream<BookingDto> bookings = query.get()) {
+                        bookings.forEach(writer::write);
+                    }
+                    writer.flush();
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private BookingFilter.BookingFilterBuilder filter(BookingFilter.Role role, Long userId, BookingState state,
+                                                      int size) {
+        return BookingFilter.builder()
+                .role(role)
+                .userId(userId)
+                .state(state)
+                .now(LocalDateTime.now(clock))
+                .size(size);
+    }
+
+    private List<BookingDto> findBookings(BookingFilter.BookingFilterBuilder filter) {
+        BookingFilter bookingFilter = filter.build();
+        getUserById(bookingFilter.getUserId());
+        return bookingQueryCache.get(bookingFilter, () -> bookingRepository.findAll(bookingFilter));
+    }
 
-        List<Booking> bookings;
-        Pageable page = PageRequest.of(from / size, size, sort);
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, page);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(userId, LocalDateTime.now(), page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(userId, LocalDateTime.now(), page);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(), LocalDateTime.now(), page);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, WAITING, page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, REJECTED, page);
-                break;
-            default:
-                throw new InvalidBookingException("Unknown state: " + state);
+    private Set<Long> updateWaitingStatuses(List<Booking> waiting, BookingStatus status) {
+        if (waiting.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> ids = waiting.stream().map(Booking::getId).collect(Collectors.toSet());
+        int updated = bookingRepository.updateStatusByIdIn(status, ids, WAITING);
+        if (updated == ids.size()) {
+            return ids;
+        }
+        // часть бронирований успели изменить параллельно
+        return new HashSet<>(bookingRepository.findIdsByIdInAndStatus(ids, status));
+    }
+
+    private void checkSlotIsFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(itemId, ACTIVE_STATUSES,
+                end, start)) {
+            throw new InvalidBookingException("Вещь c id " + itemId + " уже забронирована на этот период");
         }
-        log.info("Получен список всех бронирований для всех вещей пользователя с id " + userId);
-        return getListOfBookingDto(bookings);
     }
 
     private User getUserById(Long userId) {
@@ -159,8 +286,8 @@ public class BookingServiceImpl implements BookingService {
                 new ModelNotFoundException("Неверный ID пользователя"));
     }
 
-    private Item getItemById(Long itemId) {
-        return itemRepository.findById(itemId).orElseThrow(() ->
+    private Item getItemByIdForUpdate(Long itemId) {
+        return itemRepository.findByIdForUpdate(itemId).orElseThrow(() ->
                 new ModelNotFoundException("Неверный ID вещи"));
     }
 
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.comment.dto;
+
+public interface ItemCommentsCount {
+
+    Long getItemId();
+
+    long getTotal();
+}
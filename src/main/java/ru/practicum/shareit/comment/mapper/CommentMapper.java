@@ -13,13 +13,13 @@ import java.util.stream.Collectors;
 @UtilityClass
 public class CommentMapper {
 
-    public static Comment toComment(CommentDto commentDto, User user, Item item) {
+    public static Comment toComment(CommentDto commentDto, User user, Item item, LocalDateTime created) {
         return Comment.builder()
                 .id(commentDto.getId())
                 .text(commentDto.getText())
                 .author(user)
                 .item(item)
-                .created(LocalDateTime.now())
+                .created(created)
                 .build();
     }
 
@@ -1,16 +1,39 @@
 package ru.practicum.shareit.comment.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.comment.dto.ItemCommentView;
+import ru.practicum.shareit.comment.dto.ItemCommentsCount;
 import ru.practicum.shareit.comment.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
+    @Query(value = "SELECT c.id AS \"id\", c.text AS \"text\", u.name AS \"authorName\", " +
+            "c.created AS \"created\", c.item_id AS \"itemId\" " +
+            "FROM (SELECT cm.*, ROW_NUMBER() OVER (PARTITION BY cm.item_id ORDER BY cm.created DESC, cm.id DESC) AS rn " +
+            "FROM comments cm WHERE cm.item_id IN (:itemIds)) c " +
+            "JOIN users u ON u.id = c.author_id " +
+            "WHERE c.rn <= :limit " +
+            "ORDER BY c.item_id, c.created DESC, c.id DESC", nativeQuery = true)
+    List<ItemCommentView> findLatestByItemIds(Collection<Long> itemIds, int limit);
 
-    @Query(value = "SELECT c FROM Comment c " +
-            "WHERE c.item.id IN (:itemId)")
-    Set<Comment> findCommentsByItemId(Set<Long> itemId);
+    @Query("SELECT c.item.id AS itemId, COUNT(c) AS total FROM Comment c " +
+            "WHERE c.item.id IN (:itemIds) GROUP BY c.item.id")
+    List<ItemCommentsCount> countByItemIds(Collection<Long> itemIds);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment c where c.item.id = :itemId order by c.created desc, c.id desc")
+    List<Comment> findPageByItemId(Long itemId, Pageable page);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment c " +
+            "where c.item.id = :itemId " +
+            "and (c.created < :cursorCreated or (c.created = :cursorCreated and c.id < :cursorId)) " +
+            "order by c.created desc, c.id desc")
+    List<Comment> findPageByItemIdAfterCursor(Long itemId, LocalDateTime cursorCreated, Long cursorId, Pageable page);
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.metrics.SqlStatementsInterceptor;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public WebMvcConfigurer sqlStatementsConfigurer(MeterRegistry registry,
+                                                    @Value("${shareit.sql.budget:20}") int budget) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry interceptors) {
+                interceptors.addInterceptor(new SqlStatementsInterceptor(registry, budget));
+            }
+        };
+    }
+}
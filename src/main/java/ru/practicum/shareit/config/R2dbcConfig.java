@@ -0,0 +1,48 @@
+package ru.practicum.shareit.config;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Неблокирующий доступ к БД для API чтения в профиле reactive.
+ * Фабрика соединений не публикуется бином: при наличии ConnectionFactory в контексте
+ * Spring Boot не создает JDBC DataSource, а вместе с ним JPA. По той же причине
+ * отключена автоконфигурация R2DBC.
+ */
+@Configuration
+@Profile("reactive")
+public class R2dbcConfig {
+
+    private ConnectionFactory connectionFactory;
+
+    @Bean
+    public DatabaseClient databaseClient(@Value("${spring.r2dbc.url}") String url,
+                                         @Value("${spring.r2dbc.username:}") String username,
+                                         @Value("${spring.r2dbc.password:}") String password) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        connectionFactory = ConnectionFactories.get(options.build());
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionFactory instanceof Disposable) {
+            ((Disposable) connectionFactory).dispose();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Обработка HTTP-запросов Tomcat в виртуальных потоках (Java 21, профиль сборки jdk21).
+ * Сборка остается на Java 11, поэтому фабрика виртуальных потоков вызывается через рефлексию.
+ * Пул потоков больше не ограничивает число одновременных запросов, поэтому их число ограничивается
+ * семафором; по умолчанию он равен server.tomcat.threads.max, чтобы оба режима принимали
+ * одинаковое число запросов и сравнивались на равных.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${shareit.threads.max-concurrent-requests:${server.tomcat.threads.max:200}}") int permits,
+            @Value("${shareit.threads.acquire-timeout:30s}") Duration acquireTimeout,
+            @Value("${shareit.threads.unlimited-paths:/actuator/**,/bookings/export,/bookings/owner/export}")
+            List<String> unlimitedPaths) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(permits, acquireTimeout, unlimitedPaths));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Виртуальные потоки доступны начиная с Java 21.", e);
+        }
+    }
+}
@@ -35,6 +35,13 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage(), e.getMessage());
     }
 
+    @ExceptionHandler({InvalidCursorException.class, InvalidPageSizeException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidPageException(final RuntimeException e) {
+        log.error("Invalid Page Exception");
+        return new ErrorResponse(e.getMessage(), e.getMessage());
+    }
+
     @ExceptionHandler({MethodArgumentNotValidException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleMethodArgumentNotValidExceptions(final MethodArgumentNotValidException e) {
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exceptions;
+
+public class InvalidPageSizeException extends RuntimeException {
+
+    public InvalidPageSizeException(String message) {
+        super(message);
+    }
+}
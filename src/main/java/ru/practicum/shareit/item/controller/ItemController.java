@@ -2,14 +2,22 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.exceptions.InvalidPageSizeException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportFormat;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,6 +25,10 @@ import java.util.List;
 @Slf4j
 @RequestMapping("/items")
 public class ItemController {
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+    static final int MAX_COMMENTS_PAGE_SIZE = 100;
+
     private final ItemService itemService;
 
     @PostMapping
@@ -25,6 +37,16 @@ public class ItemController {
         return itemService.createItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = {NDJSON, CSV})
+    public ItemImportResultDto importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                           InputStream body) {
+        log.info("Импорт вещей пользователя с id: " + userId);
+        ItemImportFormat format = contentType.isCompatibleWith(MediaType.valueOf(CSV))
+                ? ItemImportFormat.CSV
+                : ItemImportFormat.NDJSON;
+        return itemService.importItems(userId, format, body);
+    }
 
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable Long itemId, @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -40,11 +62,15 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemDto> getItemListByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0") int from,
-                                             @RequestParam(defaultValue = "20") @Positive(message = "Размер страницы должен быть значением > 0") int size) {
+    public ResponseEntity<List<ItemDto>> getItemListByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0") int from,
+                                                             @RequestParam(defaultValue = "20") @Positive(message = "Размер страницы должен быть значением > 0") int size,
+                                                             @RequestParam(required = false) String cursor) {
         log.info("Получен список всех вещей пользователя с ID: " + userId);
-        return itemService.getItemListByUserId(userId, from, size);
+        List<ItemDto> items = cursor == null
+                ? itemService.getItemListByUserId(userId, from, size)
+                : itemService.getItemListByUserId(userId, Cursor.decode(cursor), size);
+        return Cursor.withNextCursor(items, size, item -> Cursor.of(item.getId()));
     }
 
     @GetMapping("/search")
@@ -61,4 +87,16 @@ public class ItemController {
                                   @RequestBody @Valid CommentDto commentDto) {
         return itemService.saveComment(itemId, userId, commentDto);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                        @RequestParam(defaultValue = "20") int size,
+                                                        @RequestParam(required = false) String cursor) {
+        if (size <= 0 || size > MAX_COMMENTS_PAGE_SIZE) {
+            throw new InvalidPageSizeException("Размер страницы должен быть от 1 до " + MAX_COMMENTS_PAGE_SIZE);
+        }
+        log.info("Получены отзывы о вещи с id: " + itemId);
+        List<CommentDto> comments = itemService.getComments(itemId, cursor == null ? null : Cursor.decode(cursor), size);
+        return Cursor.withNextCursor(comments, size, comment -> new Cursor(comment.getCreated(), comment.getId()));
+    }
 }
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ReactiveItemRepository;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+@RestController
+@Validated
+@Profile("reactive")
+@RequestMapping("/reactive/items")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveItemController {
+    private final ReactiveItemRepository itemRepository;
+
+    @GetMapping(path = "/search", produces = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public Flux<ItemDto> search(@RequestParam(value = "text") String text,
+                                @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0") int from,
+                                @RequestParam(defaultValue = "20") @Positive(message = "Размер страницы должен быть значением > 0") int size) {
+        log.info("Найдена вещь по ключевому слову: " + text);
+        if (text.isBlank()) {
+            return Flux.empty();
+        }
+        return itemRepository.search(text.toLowerCase(), PageRequest.of(from / size, size).getOffset(), size);
+    }
+}
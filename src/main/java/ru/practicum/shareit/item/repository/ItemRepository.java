@@ -2,26 +2,41 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("select it " +
-            "from Item as it " +
-            "where it.available = true " +
-            "and (lower(it.description) like lower(concat('%', ?1, '%')) " +
-            "or lower(it.name) like lower(concat('%', ?1, '%')))")
-    Page<Item> search(String text, Pageable page);
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository {
 
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
     Page<Item> findAllByOwnerIdOrderById(Long userId, Pageable page);
 
-    List<Item> findAllByRequestId(Long requestId);
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
+    List<Item> findAllByOwnerIdAndIdGreaterThanOrderById(Long userId, Long id, Pageable page);
 
-    List<Item> findAllByRequestIn(List<ItemRequest> requests);
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
+    @Query("select it from Item as it where it.id = ?1")
+    Optional<Item> findWithBookingsById(Long itemId);
+
+    @Query("select it from Item as it join it.nextBooking as b where b.start <= ?1")
+    List<Item> findAllWithStartedNextBooking(LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(it.id, it.name, it.description, it.available, " +
+            "it.request.id) from Item as it where it.request.id in ?1 order by it.id")
+    List<ItemDto> findItemDtosByRequestIds(Collection<Long> requestIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it from Item as it where it.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+public interface ItemSearchRepository {
+
+    Page<Item> search(String text, Pageable page);
+}
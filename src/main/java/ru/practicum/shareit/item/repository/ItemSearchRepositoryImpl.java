@@ -0,0 +1,74 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по вхождению текста в название или описание.
+ * На PostgreSQL запрос выполняется через ILIKE с триграммными GIN-индексами и ранжируется по similarity(),
+ * на остальных базах - через lower(...) like с ранжированием совпадений в названии выше совпадений в описании.
+ */
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+
+    private static final String TRIGRAM_CONDITION = "from items it " +
+            "where it.available = true " +
+            "and (it.name ilike :pattern or it.description ilike :pattern)";
+    private static final String TRIGRAM_SEARCH = "select it.* " + TRIGRAM_CONDITION + " " +
+            "order by greatest(similarity(it.name, :text), similarity(it.description, :text)) desc, it.id";
+    private static final String TRIGRAM_COUNT = "select count(*) " + TRIGRAM_CONDITION;
+
+    private static final String LIKE_CONDITION = "from Item as it " +
+            "where it.available = true " +
+            "and (lower(it.description) like :pattern or lower(it.name) like :pattern)";
+    private static final String LIKE_SEARCH = "select it " + LIKE_CONDITION + " " +
+            "order by case when lower(it.name) like :pattern then 0 else 1 end, it.id";
+    private static final String LIKE_COUNT = "select count(it) " + LIKE_CONDITION;
+
+    private final EntityManager entityManager;
+    private final boolean trigram;
+
+    public ItemSearchRepositoryImpl(EntityManager entityManager,
+                                    @Value("${shareit.search.trigram:false}") boolean trigram) {
+        this.entityManager = entityManager;
+        this.trigram = trigram;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<Item> search(String text, Pageable page) {
+        String pattern = "%" + escape(text.toLowerCase()) + "%";
+        Query query;
+        Query countQuery;
+        if (trigram) {
+            query = entityManager.createNativeQuery(TRIGRAM_SEARCH, Item.class)
+                    .setParameter("text", text);
+            countQuery = entityManager.createNativeQuery(TRIGRAM_COUNT);
+        } else {
+            query = entityManager.createQuery(LIKE_SEARCH, Item.class);
+            countQuery = entityManager.createQuery(LIKE_COUNT);
+        }
+        query.setParameter("pattern", pattern);
+        countQuery.setParameter("pattern", pattern);
+        if (page.isPaged()) {
+            query.setFirstResult((int) page.getOffset());
+            query.setMaxResults(page.getPageSize());
+        }
+
+        List<Item> items = query.getResultList();
+        return PageableExecutionUtils.getPage(items, page,
+                () -> ((Number) countQuery.getSingleResult()).longValue());
+    }
+
+    static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.repository;
+
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.Collection;
+
+/**
+ * Чтение вещей через R2DBC. Запросы повторяют ItemSearchRepositoryImpl и ItemRepository,
+ * поэтому порядок и состав результатов совпадают с сервлетным API.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveItemRepository {
+
+    private static final String COLUMNS = "select it.id, it.name, it.description, it.available, it.request_id " +
+            "from items it ";
+    private static final String TRIGRAM_SEARCH = COLUMNS +
+            "where it.available = true " +
+            "and (it.name ilike :pattern or it.description ilike :pattern) " +
+            "order by greatest(similarity(it.name, :text), similarity(it.description, :text)) desc, it.id " +
+            "limit :size offset :offset";
+    private static final String LIKE_SEARCH = COLUMNS +
+            "where it.available = true " +
+            "and (lower(it.description) like :pattern or lower(it.name) like :pattern) " +
+            "order by case when lower(it.name) like :pattern then 0 else 1 end, it.id " +
+            "limit :size offset :offset";
+    private static final String BY_REQUEST_IDS = COLUMNS + "where it.request_id in (:requestIds) order by it.id";
+
+    private final DatabaseClient client;
+    private final boolean trigram;
+
+    public ReactiveItemRepository(DatabaseClient client, @Value("${shareit.search.trigram:false}") boolean trigram) {
+        this.client = client;
+        this.trigram = trigram;
+    }
+
+    public Flux<ItemDto> search(String text, long offset, int size) {
+        DatabaseClient.GenericExecuteSpec spec = trigram
+                ? client.sql(TRIGRAM_SEARCH).bind("text", text)
+                : client.sql(LIKE_SEARCH);
+        return spec.bind("pattern", "%" + ItemSearchRepositoryImpl.escape(text.toLowerCase()) + "%")
+                .bind("size", size)
+                .bind("offset", offset)
+                .map(ReactiveItemRepository::toItemDto)
+                .all();
+    }
+
+    public Flux<ItemDto> findAllByRequestIds(Collection<Long> requestIds) {
+        return client.sql(BY_REQUEST_IDS)
+                .bind("requestIds", requestIds)
+                .map(ReactiveItemRepository::toItemDto)
+                .all();
+    }
+
+    private static ItemDto toItemDto(Row row) {
+        return new ItemDto(row.get("id", Long.class), row.get("name", String.class),
+                row.get("description", String.class), row.get("available", Boolean.class),
+                row.get("request_id", Long.class));
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.comment.dto.CommentDto;
+
+@Getter
+@AllArgsConstructor
+public class CommentCreatedEvent {
+    private final Long itemId;
+    private final CommentDto comment;
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+
+/**
+ * Поддерживает у вещей ссылки на последнее и ближайшее подтвержденные бронирования.
+ * Пересчет выполняется при смене статуса бронирования и по расписанию, когда наступает начало
+ * ближайшего бронирования и оно становится последним.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemBookingsRefresher {
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final Clock clock;
+
+    public void refresh(Item item, LocalDateTime now) {
+        item.setLastBooking(bookingRepository.findTopByItemIdAndStatusAndStartIsBeforeOrderByEndDesc(item.getId(),
+                APPROVED, now).orElse(null));
+        item.setNextBooking(bookingRepository.findTopByItemIdAndStatusAndStartIsAfterOrderByStart(item.getId(),
+                APPROVED, now).orElse(null));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.bookings-rollover-delay:60000}")
+    @Transactional
+    public void rollover() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Item> items = itemRepository.findAllWithStartedNextBooking(now);
+        items.forEach(item -> refresh(item, now));
+        if (!items.isEmpty()) {
+            log.info("Обновлены бронирования у вещей: " + items.size());
+        }
+    }
+}
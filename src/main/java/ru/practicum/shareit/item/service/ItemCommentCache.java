@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.dto.ItemCommentView;
+import ru.practicum.shareit.comment.dto.ItemCommentsCount;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Последние отзывы и их общее число по вещам. При промахе данные всех вещей страницы загружаются
+ * двумя запросами. После коммита нового отзыва запись вещи удаляется, после изменения имени
+ * или удаления пользователя - весь кэш.
+ */
+@Component
+public class ItemCommentCache {
+
+    private final CommentRepository commentRepository;
+    private final int latest;
+    private final Cache<Long, ItemComments> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemCommentCache(CommentRepository commentRepository,
+                            @Value("${shareit.items.comments.latest:10}") int latest,
+                            @Value("${shareit.items.comments.cache.maximum-size:10000}") long maximumSize,
+                            @Value("${shareit.items.comments.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.commentRepository = commentRepository;
+        this.latest = latest;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public void fill(List<ItemDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Set<Long> itemIds = items.stream().map(ItemDto::getId).collect(Collectors.toSet());
+        Map<Long, ItemComments> comments = new HashMap<>(cache.getAllPresent(itemIds));
+        Set<Long> missing = new HashSet<>(itemIds);
+        missing.removeAll(comments.keySet());
+        if (!missing.isEmpty()) {
+            long stamp = invalidations.get();
+            Map<Long, ItemComments> loaded = load(missing);
+            cache.putAll(loaded);
+            // загрузка могла прочитать данные до коммита, который уже сбросил кэш
+            if (invalidations.get() != stamp) {
+                cache.invalidateAll(loaded.keySet());
+            }
+            comments.putAll(loaded);
+        }
+        items.forEach(item -> {
+            ItemComments itemComments = comments.get(item.getId());
+            item.setComments(new ArrayList<>(itemComments.getLatest()));
+            item.setCommentsCount(itemComments.getTotal());
+        });
+    }
+
+    @TransactionalEventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        invalidations.incrementAndGet();
+        cache.invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private Map<Long, ItemComments> load(Set<Long> itemIds) {
+        Map<Long, Long> totals = commentRepository.countByItemIds(itemIds).stream()
+                .collect(Collectors.toMap(ItemCommentsCount::getItemId, ItemCommentsCount::getTotal));
+        Map<Long, List<CommentDto>> latestComments = commentRepository.findLatestByItemIds(itemIds, latest)
+                .stream()
+                .collect(Collectors.groupingBy(ItemCommentView::getItemId,
+                        Collectors.mapping(this::toCommentDto, Collectors.toList())));
+
+        Map<Long, ItemComments> comments = new HashMap<>();
+        itemIds.forEach(itemId -> comments.put(itemId, new ItemComments(totals.getOrDefault(itemId, 0L),
+                List.copyOf(latestComments.getOrDefault(itemId, List.of())))));
+        return comments;
+    }
+
+    private CommentDto toCommentDto(ItemCommentView view) {
+        return CommentDto.builder()
+                .id(view.getId())
+                .text(view.getText())
+                .authorName(view.getAuthorName())
+                .created(view.getCreated())
+                .build();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class ItemComments {
+        private final long total;
+        private final List<CommentDto> latest;
+    }
+}
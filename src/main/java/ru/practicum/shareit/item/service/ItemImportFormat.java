@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.service;
+
+public enum ItemImportFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Построчное чтение импортируемых вещей: JSON lines (объект ItemDto в строке)
+ * или CSV с заголовком name,description,available[,requestId]. Поля CSV могут быть в кавычках,
+ * перевод строки внутри поля не поддерживается.
+ */
+class ItemImportReader implements Closeable {
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String AVAILABLE = "available";
+    private static final String REQUEST_ID = "requestid";
+
+    private final BufferedReader reader;
+    private final ItemImportFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> header;
+    private long lineNumber;
+
+    ItemImportReader(InputStream input, ItemImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        if (format == ItemImportFormat.NDJSON) {
+            return parseJson(line);
+        }
+        if (header == null) {
+            header = parseHeader(line);
+            return header.containsKey(NAME) && header.containsKey(DESCRIPTION) && header.containsKey(AVAILABLE)
+                    ? next()
+                    : new Row(lineNumber, null, "Заголовок CSV должен содержать name, description и available");
+        }
+        return parseCsv(line);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row parseJson(String line) {
+        try {
+            return new Row(lineNumber, objectMapper.readValue(line, ItemDto.class), null);
+        } catch (JsonProcessingException e) {
+            return new Row(lineNumber, null, "Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> fields = split(line);
+        for (int i = 0; i < fields.size(); i++) {
+            columns.put(fields.get(i).trim().replace("_", "").toLowerCase(), i);
+        }
+        return columns;
+    }
+
+    private Row parseCsv(String line) {
+        List<String> fields = split(line);
+        String available = field(fields, AVAILABLE);
+        if (!"true".equalsIgnoreCase(available) && !"false".equalsIgnoreCase(available)) {
+            return new Row(lineNumber, null, "Поле available должно быть true или false");
+        }
+        String requestId = field(fields, REQUEST_ID);
+        ItemDto item = ItemDto.builder()
+                .name(field(fields, NAME))
+                .description(field(fields, DESCRIPTION))
+                .available(Boolean.parseBoolean(available))
+                .build();
+        if (requestId != null && !requestId.isBlank()) {
+            try {
+                item.setRequestId(Long.parseLong(requestId.trim()));
+            } catch (NumberFormatException e) {
+                return new Row(lineNumber, null, "Некорректный requestId: " + requestId);
+            }
+        }
+        return new Row(lineNumber, item, null);
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = header.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Row {
+        private final long line;
+        private final ItemDto item;
+        private final String error;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemRenamedEvent {
+    private final Long itemId;
+}
@@ -2,7 +2,10 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.pagination.Cursor;
 
+import java.io.InputStream;
 import java.util.List;
 
 
@@ -18,8 +21,14 @@ public interface ItemService {
 
     List<ItemDto> getItemListByUserId(Long userId, int from, int size);
 
+    List<ItemDto> getItemListByUserId(Long userId, Cursor cursor, int size);
+
     List<ItemDto> search(String text, int from, int size);
 
     CommentDto saveComment(Long itemId, Long userId, CommentDto commentDto);
 
+    List<CommentDto> getComments(Long itemId, Cursor cursor, int size);
+
+    ItemImportResultDto importItems(Long userId, ItemImportFormat format, InputStream input);
+
 }
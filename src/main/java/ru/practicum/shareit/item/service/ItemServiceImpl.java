@@ -1,13 +1,17 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
@@ -20,19 +24,26 @@ import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validation.PatchValidator;
 
 import javax.validation.ConstraintViolation;
-import javax.validation.Validation;
 import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
@@ -44,11 +55,20 @@ import static ru.practicum.shareit.item.mapper.ItemMapper.*;
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    private static final int IMPORT_BATCH_SIZE = 500;
+
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final PatchValidator patchValidator;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemCommentCache itemCommentCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
 
 
     @Override
@@ -78,7 +98,11 @@ public class ItemServiceImpl implements ItemService {
         if (!userId.equals(item.getOwner().getId())) {
             throw new UserHaveNotAccessException("Неверный ID пользователя.");
         }
+        boolean renamed = itemDto.getName() != null && !itemDto.getName().equals(item.getName());
         Item updatedItem = itemRepository.save(checksItems(item, itemDto));
+        if (renamed) {
+            eventPublisher.publishEvent(new ItemRenamedEvent(itemId));
+        }
         log.info("Вещь с id " + updatedItem.getId() + " обновлена");
         return ItemMapper.toItemDto(updatedItem);
     }
@@ -86,14 +110,11 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public ItemDto getItemByUserId(Long itemId, Long userId) {
-
-        Item item = getById(itemId);
-        ItemDto itemDto = toItemDto(item);
-        populateItemDto(itemDto);
-        if (!item.getOwner().getId().equals(userId)) {
-            itemDto.setLastBooking(null);
-            itemDto.setNextBooking(null);
-        }
+        Item item = getWithBookingsById(itemId);
+        ItemDto itemDto = item.getOwner().getId().equals(userId)
+                ? setBookings(List.of(item)).get(0)
+                : toItemDto(item);
+        itemCommentCache.fill(List.of(itemDto));
         log.info("Вещь с id " + item.getId() + " запрошена");
         return itemDto;
     }
@@ -109,11 +130,23 @@ public class ItemServiceImpl implements ItemService {
                 .collect(Collectors.toList());
 
         List<ItemDto> itemsDto = this.setBookings(items);
-        this.setComments(itemsDto);
+        itemCommentCache.fill(itemsDto);
         log.info("Получен список всех вещей пользователя.");
         return itemsDto;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> getItemListByUserId(Long userId, Cursor cursor, int size) {
+        List<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(userId, cursor.getId(),
+                PageRequest.of(0, size));
+
+        List<ItemDto> itemsDto = this.setBookings(items);
+        itemCommentCache.fill(itemsDto);
+        log.info("Получена страница вещей пользователя после курсора.");
+        return itemsDto;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> search(String text, int from, int size) {
@@ -139,15 +172,61 @@ public class ItemServiceImpl implements ItemService {
     public CommentDto saveComment(Long itemId, Long userId, CommentDto commentDto) {
         User user = getUserById(userId);
         Item item = getById(itemId);
+        LocalDateTime now = LocalDateTime.now(clock);
 
-        if (bookingRepository.findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(userId, itemId, APPROVED,
-                LocalDateTime.now()).isEmpty()) {
+        if (!bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndIsBefore(userId, itemId, APPROVED, now)) {
             throw new InvalidBookingException("Невозможно добавить комментарий.");
         }
 
-        Comment comment = toComment(commentDto, user, item);
+        Comment comment = toComment(commentDto, user, item, now);
+        CommentDto savedComment = toCommentDto(commentRepository.save(comment));
+        eventPublisher.publishEvent(new CommentCreatedEvent(itemId, savedComment));
         log.info("Комментарий добавлен.");
-        return toCommentDto(commentRepository.save(comment));
+        return savedComment;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentDto> getComments(Long itemId, Cursor cursor, int size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new ModelNotFoundException("Неверный ID.");
+        }
+        PageRequest page = PageRequest.of(0, size);
+        List<Comment> comments = cursor == null
+                ? commentRepository.findPageByItemId(itemId, page)
+                : commentRepository.findPageByItemIdAfterCursor(itemId, cursor.requireTime(), cursor.getId(), page);
+        log.info("Получена страница отзывов о вещи с id " + itemId);
+        return getCommentDtoList(comments);
+    }
+
+    @Override
+    public ItemImportResultDto importItems(Long userId, ItemImportFormat format, InputStream input) {
+        User owner = getUserById(userId);
+        List<ItemImportErrorDto> errors = new ArrayList<>();
+        List<ItemImportReader.Row> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        int imported = 0;
+        try (ItemImportReader reader = new ItemImportReader(input, format, objectMapper)) {
+            for (ItemImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+                String error = row.getError() != null ? row.getError() : validateImportedItem(row.getItem());
+                if (error != null) {
+                    errors.add(new ItemImportErrorDto(row.getLine(), error));
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    imported += saveImportBatch(owner, batch, errors);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                imported += saveImportBatch(owner, batch, errors);
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Не удалось прочитать файл импорта", e);
+        }
+        errors.sort(Comparator.comparingLong(ItemImportErrorDto::getLine));
+        log.info("Импортировано вещей: " + imported + ", ошибок: " + errors.size());
+        return new ItemImportResultDto(imported, errors);
     }
 
     private User getUserById(Long userId) {
@@ -160,6 +239,11 @@ public class ItemServiceImpl implements ItemService {
                 new ModelNotFoundException("Неверный ID."));
     }
 
+    private Item getWithBookingsById(Long itemId) {
+        return itemRepository.findWithBookingsById(itemId).orElseThrow(() ->
+                new ModelNotFoundException("Неверный ID."));
+    }
+
     private ItemRequest getItemRequestById(Long requestId) {
         return itemRequestRepository.findById(requestId).orElseThrow(() ->
                 new ModelNotFoundException("Неверный ID запроса."));
@@ -175,80 +259,109 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null && itemDto.getAvailable() != item.getAvailable()) {
             item.setAvailable(itemDto.getAvailable());
         }
-        isValid(item);
-        return item;
+        return patchValidator.validate(item, "Переданы некорректные данные");
     }
 
-    private void isValid(Item item) {
-        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-        Set<ConstraintViolation<Item>> violations = validator.validate(item);
-        if (!violations.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Переданы некорректные данные");
+    private String validateImportedItem(ItemDto itemDto) {
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+        if (violations.isEmpty()) {
+            return null;
         }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
     }
 
-    private void populateItemDto(ItemDto itemDto) {
-        BookingShortDto lastBooking = getLastBooking(itemDto.getId());
-        BookingShortDto nextBooking = getNextBooking(itemDto.getId());
-
-        List<CommentDto> comments = getCommentDtoList(commentRepository.findAllByItemId(itemDto.getId()));
-
-        itemDto.setLastBooking(lastBooking);
-        itemDto.setNextBooking(nextBooking);
-        itemDto.setComments(comments);
-    }
-
-    private BookingShortDto getNextBooking(Long itemId) {
-        return bookingRepository.findTopByItemIdAndStatusAndStartIsAfterOrderByStart(itemId, APPROVED, LocalDateTime.now())
-                .map(BookingMapper::toBookingShortDto)
-                .orElse(null);
-    }
-
-    private BookingShortDto getLastBooking(Long itemId) {
-        return bookingRepository.findTopByItemIdAndStatusAndStartIsBeforeOrderByEndDesc(itemId, APPROVED, LocalDateTime.now())
-                .map(BookingMapper::toBookingShortDto)
-                .orElse(null);
+    private int saveImportBatch(User owner, List<ItemImportReader.Row> batch, List<ItemImportErrorDto> errors) {
+        Set<Long> requestIds = batch.stream()
+                .map(row -> row.getItem().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<ItemImportReader.Row> rows = new ArrayList<>(batch.size());
+        for (ItemImportReader.Row row : batch) {
+            Long requestId = row.getItem().getRequestId();
+            if (requestId != null && !requests.containsKey(requestId)) {
+                errors.add(new ItemImportErrorDto(row.getLine(), "Неверный ID запроса."));
+            } else {
+                rows.add(row);
+            }
+        }
+        try {
+            saveImportedItems(owner, rows, requests);
+            return rows.size();
+        } catch (DataAccessException e) {
+            // пакет откатился целиком: сохраняем строки по одной, чтобы найти ошибочные
+            int saved = 0;
+            for (ItemImportReader.Row row : rows) {
+                try {
+                    saveImportedItems(owner, List.of(row), requests);
+                    saved++;
+                } catch (DataAccessException rowException) {
+                    errors.add(new ItemImportErrorDto(row.getLine(), "Не удалось сохранить вещь: "
+                            + rowException.getMostSpecificCause().getMessage()));
+                }
+            }
+            return saved;
+        }
     }
 
-    private void setComments(List<ItemDto> items) {
-        Map<Long, ItemDto> itemsDto = new HashMap<>();
-        items.forEach(item -> itemsDto.put(item.getId(), item));
-
-        Set<Comment> comments = new HashSet<>(commentRepository.findCommentsByItemId(itemsDto.keySet()));
-
-        if (!itemsDto.isEmpty()) {
-            comments.forEach(comment -> Optional.ofNullable(itemsDto.get(comment.getItem().getId()))
-                    .ifPresent(i -> i.getComments().add(toCommentDto(comment))));
-        }
+    private void saveImportedItems(User owner, List<ItemImportReader.Row> rows, Map<Long, ItemRequest> requests) {
+        List<Item> items = rows.stream()
+                .map(row -> {
+                    Item item = toItem(row.getItem());
+                    item.setId(null);
+                    item.setOwner(owner);
+                    item.setRequest(row.getItem().getRequestId() == null
+                            ? null : requests.get(row.getItem().getRequestId()));
+                    return item;
+                })
+                .collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> itemRepository.saveAllAndFlush(items));
     }
 
     private List<ItemDto> setBookings(List<Item> items) {
         List<ItemDto> itemsDto = getListItemDto(items);
+        LocalDateTime now = LocalDateTime.now(clock);
+        Set<Long> staleItemIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (item.getNextBooking() != null && !item.getNextBooking().getStart().isAfter(now)) {
+                staleItemIds.add(item.getId());
+                continue;
+            }
+            itemsDto.get(i).setLastBooking(toShortDto(item.getLastBooking()));
+            itemsDto.get(i).setNextBooking(toShortDto(item.getNextBooking()));
+        }
+        if (staleItemIds.isEmpty()) {
+            return itemsDto;
+        }
 
-        Set<Booking> bookings = new HashSet<>(bookingRepository.findAll());
-
-        if (!itemsDto.isEmpty()) {
-            itemsDto.forEach(item -> {
-
-                Optional<Booking> nextBooking = bookings.stream()
-                        .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                        .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                        .min(Comparator.comparing(Booking::getStart));
+        // ближайшее бронирование уже началось, а плановый пересчет еще не прошел
+        Map<Long, BookingShortDto> lastBookings = getBookingsByItemId(
+                bookingRepository.findLastBookingsByItemIds(staleItemIds, APPROVED, now));
+        Map<Long, BookingShortDto> nextBookings = getBookingsByItemId(
+                bookingRepository.findNextBookingsByItemIds(staleItemIds, APPROVED, now));
+        itemsDto.stream()
+                .filter(item -> staleItemIds.contains(item.getId()))
+                .forEach(item -> {
+                    item.setLastBooking(lastBookings.get(item.getId()));
+                    item.setNextBooking(nextBookings.get(item.getId()));
+                });
+        return itemsDto;
+    }
 
-                Optional<Booking> lastBooking = bookings.stream()
-                        .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                        .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                        .max(Comparator.comparing(Booking::getEnd));
+    private BookingShortDto toShortDto(Booking booking) {
+        return booking == null ? null : BookingMapper.toBookingShortDto(booking);
+    }
 
-                item.setNextBooking(nextBooking
-                        .map(BookingMapper::toBookingShortDto)
-                        .orElse(null));
-                item.setLastBooking(lastBooking
-                        .map(BookingMapper::toBookingShortDto)
-                        .orElse(null));
-            });
-        }
-        return itemsDto;
+    private Map<Long, BookingShortDto> getBookingsByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), BookingMapper::toBookingShortDto,
+                        (first, second) -> first));
     }
 
 }
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Время выполнения публичных методов сервисов и вызовов репозиториев.
+ * Для репозиториев дополнительно считается число возвращённых строк.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricsAspect {
+
+    static final String SERVICE_TIMER = "shareit.service";
+    static final String REPOSITORY_TIMER = "shareit.repository";
+    static final String REPOSITORY_ROWS = "shareit.repository.rows";
+
+    private final MeterRegistry registry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(public * ru.practicum.shareit..service.*ServiceImpl.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(SERVICE_TIMER, joinPoint.getSignature().getDeclaringType().getSimpleName(), joinPoint);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object target = joinPoint.getTarget();
+        String repository = repositoryNames.computeIfAbsent(target.getClass(), type -> repositoryName(target));
+        if (Stream.class.isAssignableFrom(((MethodSignature) joinPoint.getSignature()).getReturnType())) {
+            return timeStream(repository, joinPoint);
+        }
+        Object result = record(REPOSITORY_TIMER, repository, joinPoint);
+        Integer rows = rows(result);
+        if (rows != null) {
+            recordRows(repository, joinPoint, rows);
+        }
+        return result;
+    }
+
+    /**
+     * Строки потока читаются уже после возврата из репозитория, поэтому время и число строк
+     * фиксируются при закрытии потока.
+     */
+    private Stream<?> timeStream(String repository, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        Stream<?> stream;
+        try {
+            stream = (Stream<?>) joinPoint.proceed();
+        } catch (Throwable e) {
+            sample.stop(timer(REPOSITORY_TIMER, repository, joinPoint, e.getClass().getSimpleName()));
+            throw e;
+        }
+        AtomicInteger rows = new AtomicInteger();
+        return stream.peek(row -> rows.incrementAndGet())
+                .onClose(() -> {
+                    sample.stop(timer(REPOSITORY_TIMER, repository, joinPoint, "none"));
+                    recordRows(repository, joinPoint, rows.get());
+                });
+    }
+
+    private Object record(String name, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(timer(name, className, joinPoint, exception));
+        }
+    }
+
+    private Timer timer(String name, String className, ProceedingJoinPoint joinPoint, String exception) {
+        return Timer.builder(name)
+                .tag("class", className)
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+
+    private void recordRows(String repository, ProceedingJoinPoint joinPoint, int rows) {
+        DistributionSummary.builder(REPOSITORY_ROWS)
+                .tag("class", repository)
+                .tag("method", joinPoint.getSignature().getName())
+                .register(registry)
+                .record(rows);
+    }
+
+    private static String repositoryName(Object target) {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(target);
+        return interfaces.length > 0 ? interfaces[0].getSimpleName() : target.getClass().getSimpleName();
+    }
+
+    private static Integer rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Считает SQL-запросы каждого HTTP-запроса и предупреждает о превышении бюджета.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatementsInterceptor implements HandlerInterceptor {
+
+    static final String STATEMENTS = "shareit.http.sql.statements";
+    static final String TIME = "shareit.http.sql.time";
+    static final String BUDGET_EXCEEDED = "shareit.http.sql.budget.exceeded";
+
+    private final MeterRegistry registry;
+    private final int budget;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementStats.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SqlStatementStats stats = SqlStatementStats.finish();
+        if (stats == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern == null ? "UNKNOWN" : pattern.toString();
+        Tags tags = Tags.of("method", request.getMethod(), "uri", endpoint);
+
+        DistributionSummary.builder(STATEMENTS).tags(tags).register(registry).record(stats.getStatements());
+        Timer.builder(TIME).tags(tags).register(registry).record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        if (stats.getStatements() > budget) {
+            Counter.builder(BUDGET_EXCEEDED).tags(tags).register(registry).increment();
+            log.warn("Запрос " + request.getMethod() + " " + endpoint + " выполнил " + stats.getStatements()
+                    + " SQL-запросов при бюджете " + budget);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -31,14 +33,18 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @RequestParam(defaultValue = "0")
-                                                   @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0")
-                                                   int from,
-                                                   @RequestParam(defaultValue = "20")
-                                                   @Positive(message = "Размер страницы должен быть значением > 0")
-                                                   int size) {
-        return itemRequestService.getAllItemRequests(userId, from, size);
+    public ResponseEntity<List<ItemRequestDto>> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @RequestParam(defaultValue = "0")
+                                                                   @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0")
+                                                                   int from,
+                                                                   @RequestParam(defaultValue = "20")
+                                                                   @Positive(message = "Размер страницы должен быть значением > 0")
+                                                                   int size,
+                                                                   @RequestParam(required = false) String cursor) {
+        List<ItemRequestDto> requests = cursor == null
+                ? itemRequestService.getAllItemRequests(userId, from, size)
+                : itemRequestService.getAllItemRequests(userId, Cursor.decode(cursor), size);
+        return Cursor.withNextCursor(requests, size, request -> new Cursor(request.getCreated(), request.getId()));
     }
 
     @GetMapping("/{requestId}")
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.request.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ReactiveItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.repository.ReactiveItemRequestRepository;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+@RestController
+@Validated
+@Profile("reactive")
+@RequestMapping("/reactive/requests")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveItemRequestController {
+    private final ReactiveItemRequestRepository itemRequestRepository;
+    private final ReactiveItemRepository itemRepository;
+
+    @GetMapping(path = "/all", produces = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public Flux<ItemRequestDto> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestParam(defaultValue = "0")
+                                                   @PositiveOrZero(message = "Отсчет страницы должен быть значением >= 0")
+                                                   int from,
+                                                   @RequestParam(defaultValue = "20")
+                                                   @Positive(message = "Размер страницы должен быть значением > 0")
+                                                   int size) {
+        log.info("Получен список всех запросов, созданных другими пользователями.");
+        return itemRequestRepository.findAllByRequesterIdNot(userId, PageRequest.of(from / size, size).getOffset(), size)
+                .collectList()
+                .flatMapMany(this::setItems);
+    }
+
+    private Flux<ItemRequestDto> setItems(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequestDto::getId).collect(Collectors.toList());
+        return itemRepository.findAllByRequestIds(requestIds)
+                .collect(Collectors.groupingBy(ItemDto::getRequestId))
+                .flatMapIterable(itemsByRequest -> {
+                    for (ItemRequestDto request : requests) {
+                        request.setItems(itemsByRequest.getOrDefault(request.getId(), new ArrayList<>()));
+                    }
+                    return requests;
+                });
+    }
+}
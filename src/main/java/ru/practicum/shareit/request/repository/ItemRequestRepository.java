@@ -2,15 +2,25 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Query("select r from ItemRequest r where r.requester.id = ?1 order by r.created, r.id")
     List<ItemRequest> findAllByRequesterIdOrderByCreatedAsc(Long userId);
 
-    List<ItemRequest> findAllByRequesterIdNotOrderByCreatedAsc(Long userId, Pageable page);
+    List<ItemRequest> findAllByRequesterIdNotOrderByCreatedAscIdAsc(Long userId, Pageable page);
+
+    @Query("select r from ItemRequest r " +
+            "where r.requester.id <> :userId " +
+            "and (r.created > :cursorCreated or (r.created = :cursorCreated and r.id > :cursorId)) " +
+            "order by r.created, r.id")
+    List<ItemRequest> findAllByRequesterIdNotAfterCursor(Long userId, LocalDateTime cursorCreated, Long cursorId,
+                                                         Pageable page);
 }
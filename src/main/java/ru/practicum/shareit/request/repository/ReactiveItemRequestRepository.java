@@ -0,0 +1,34 @@
+package ru.practicum.shareit.request.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveItemRequestRepository {
+
+    private final DatabaseClient client;
+
+    public Flux<ItemRequestDto> findAllByRequesterIdNot(Long userId, long offset, int size) {
+        return client.sql("select r.id, r.description, r.created from requests r " +
+                        "where r.requester_id <> :userId order by r.created, r.id limit :size offset :offset")
+                .bind("userId", userId)
+                .bind("size", size)
+                .bind("offset", offset)
+                .map(row -> ItemRequestDto.builder()
+                        .id(row.get("id", Long.class))
+                        .description(row.get("description", String.class))
+                        .created(row.get("created", LocalDateTime.class))
+                        .items(new ArrayList<>())
+                        .build())
+                .all();
+    }
+}
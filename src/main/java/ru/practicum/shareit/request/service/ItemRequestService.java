@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -12,4 +13,6 @@ public interface ItemRequestService {
     List<ItemRequestDto> getAllItemRequestByUserId(Long userId);
 
     List<ItemRequestDto> getAllItemRequests(Long userId, int from, int size);
+
+    List<ItemRequestDto> getAllItemRequests(Long userId, Cursor cursor, int size);
 }
@@ -7,18 +7,21 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ModelNotFoundException;
-import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.request.mapper.ItemRequestMapper.*;
@@ -30,6 +33,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final Clock clock;
 
     @Override
     @Transactional
@@ -37,7 +41,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         User user = getUserById(userId);
         ItemRequest itemRequest = toItemRequest(itemRequestDto);
         itemRequest.setRequester(user);
-        itemRequest.setCreated(LocalDateTime.now());
+        itemRequest.setCreated(LocalDateTime.now(clock));
         log.info("Запрос добавлен.");
         return toItemRequestDto(itemRequestRepository.save(itemRequest));
     }
@@ -48,7 +52,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         getUserById(userId);
         ItemRequest itemRequest = getItemRequestById(requestId);
         ItemRequestDto itemRequestDto = toItemRequestDto(itemRequest);
-        setItemsToItemRequestDto(itemRequestDto);
+        setItems(List.of(itemRequestDto));
         log.info("Получены данные о запросе.");
         return itemRequestDto;
     }
@@ -59,7 +63,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         getUserById(userId);
         List<ItemRequest> req = itemRequestRepository.findAllByRequesterIdOrderByCreatedAsc(userId);
         List<ItemRequestDto> requests = getItemRequestDtoList(req);
-        setItems(requests, req);
+        setItems(requests);
         log.info("Получен список запросов пользователя.");
         return requests;
     }
@@ -68,29 +72,34 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllItemRequests(Long userId, int from, int size) {
         Pageable page = PageRequest.of(from / size, size);
-        List<ItemRequest> req = itemRequestRepository.findAllByRequesterIdNotOrderByCreatedAsc(userId, page);
+        List<ItemRequest> req = itemRequestRepository.findAllByRequesterIdNotOrderByCreatedAscIdAsc(userId, page);
         List<ItemRequestDto> requests = getItemRequestDtoList(req);
-        setItems(requests, req);
+        setItems(requests);
         log.info("Получен список всех запросов, созданных другими пользователями.");
         return requests;
     }
 
-    private void setItems(List<ItemRequestDto> requests, List<ItemRequest> req) {
-
-        List<Item> items = itemRepository.findAllByRequestIn(req);
-        for (ItemRequestDto itemReg : requests) {
-            List<Item> items1 = items.stream()
-                    .filter(i -> Objects.equals(i.getRequest().getId(), itemReg.getId()))
-                    .collect(Collectors.toList());
-            itemReg.setItems(ItemMapper.getListItemDto(items1));
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAllItemRequests(Long userId, Cursor cursor, int size) {
+        List<ItemRequest> req = itemRequestRepository.findAllByRequesterIdNotAfterCursor(userId,
+                cursor.requireTime(), cursor.getId(), PageRequest.of(0, size));
+        List<ItemRequestDto> requests = getItemRequestDtoList(req);
+        setItems(requests);
+        log.info("Получена страница запросов других пользователей после курсора.");
+        return requests;
     }
 
-    private void setItemsToItemRequestDto(ItemRequestDto itemRequestDto) {
-        itemRequestDto.setItems(itemRepository.findAllByRequestId(itemRequestDto.getId())
-                .stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList()));
+    private void setItems(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        Set<Long> requestIds = requests.stream().map(ItemRequestDto::getId).collect(Collectors.toSet());
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findItemDtosByRequestIds(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+        for (ItemRequestDto request : requests) {
+            request.setItems(itemsByRequest.getOrDefault(request.getId(), new ArrayList<>()));
+        }
     }
 
     private User getUserById(Long userId) {
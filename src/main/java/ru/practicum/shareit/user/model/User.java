@@ -1,6 +1,9 @@
 package ru.practicum.shareit.user.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.config.HibernateCacheConfig;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
@@ -13,6 +16,8 @@ import javax.validation.constraints.NotBlank;
 @NoArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS_REGION)
 @Table(name = "users")
 public class User {
     @Id
@@ -6,4 +6,6 @@ import ru.practicum.shareit.user.model.User;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    boolean existsByEmailIgnoreCaseAndIdNot(String email, Long id);
 }
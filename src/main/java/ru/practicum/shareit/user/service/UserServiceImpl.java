@@ -2,21 +2,24 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exceptions.EmailAlreadyExistException;
 import ru.practicum.shareit.exceptions.ModelNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validation.PatchValidator;
 
-import javax.validation.ConstraintViolation;
-import javax.validation.Validation;
-import javax.validation.Validator;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
-import java.util.Set;
 
 import static ru.practicum.shareit.user.mapper.UserMapper.*;
 
@@ -25,7 +28,12 @@ import static ru.practicum.shareit.user.mapper.UserMapper.*;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final String EMAIL_CONSTRAINT = "UQ_USER_EMAIL";
+
     private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PatchValidator patchValidator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -39,19 +47,25 @@ public class UserServiceImpl implements UserService {
     public UserDto createUser(UserDto userDto) {
         User newUser = toUser(userDto);
         checksUser(newUser, userDto);
+        User user = saveUser(newUser);
         log.info("Пользователь сохранен.");
-        return toUserDto(userRepository.save(newUser));
+        return toUserDto(user);
     }
 
     @Override
     @Transactional
     public UserDto updateUser(Long id, UserDto userDto) {
         User user = getById(id);
+        boolean renamed = userDto.getName() != null && !userDto.getName().equals(user.getName());
         if (userDto.getEmail() != null && !userDto.getEmail().equals(user.getEmail())) {
-            checkEmailExistException(userDto.getEmail());
+            checkEmailExistException(userDto.getEmail(), id);
+        }
+        User updated = saveUser(checksUser(user, userDto));
+        if (renamed) {
+            eventPublisher.publishEvent(new UserChangedEvent(id));
         }
         log.info("Данные пользователя обновлены.");
-        return toUserDto(userRepository.save(checksUser(user, userDto)));
+        return toUserDto(updated);
     }
 
     @Override
@@ -66,6 +80,16 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
+        // вещи и запросы пользователя удаляются каскадом в БД, мимо кэша второго уровня;
+        // очистка после коммита, чтобы параллельное чтение не вернуло в кэш удаленные строки
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(Item.class);
+                entityManagerFactory.getCache().evict(ItemRequest.class);
+            }
+        });
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
         log.info("Пользователь удален.");
     }
 
@@ -76,23 +100,33 @@ public class UserServiceImpl implements UserService {
         if (userDto.getEmail() != null && !userDto.getEmail().equals(user.getEmail())) {
             user.setEmail(userDto.getEmail());
         }
-        isValid(user);
-        return user;
+        return patchValidator.validate(user, "Переданы некорректные данные для обновления!");
     }
 
-    private void checkEmailExistException(String email) {
-        if (userRepository.findAll().stream().anyMatch(a -> a.getEmail().equals(email)))
+    private void checkEmailExistException(String email, Long userId) {
+        if (userRepository.existsByEmailIgnoreCaseAndIdNot(email, userId))
             throw new EmailAlreadyExistException("Электронная почта уже зарегистрирована!");
     }
 
-    private void isValid(User user) {
-        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-        Set<ConstraintViolation<User>> violations = validator.validate(user);
-        if (!violations.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Переданы некорректные данные для обновления!");
+    private User saveUser(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                throw new EmailAlreadyExistException("Электронная почта уже зарегистрирована!");
+            }
+            throw e;
         }
     }
 
+    private boolean isEmailConflict(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException
+                ? ((ConstraintViolationException) e.getCause()).getConstraintName()
+                : null;
+        String source = constraint != null ? constraint : e.getMostSpecificCause().getMessage();
+        return source != null && source.toUpperCase().contains(EMAIL_CONSTRAINT);
+    }
+
     private User getById(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new ModelNotFoundException(
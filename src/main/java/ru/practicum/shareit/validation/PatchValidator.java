@@ -0,0 +1,26 @@
+package ru.practicum.shareit.validation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.validation.Validator;
+
+/**
+ * Проверка сущности после применения частичного обновления (PATCH).
+ * Использует общий потокобезопасный {@link Validator} из контекста Spring.
+ */
+@Component
+@RequiredArgsConstructor
+public class PatchValidator {
+
+    private final Validator validator;
+
+    public <T> T validate(T target, String message) {
+        if (!validator.validate(target).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,5 @@
+-- id выдает только Hibernate (pooled, allocationSize = 50): значение последовательности - верхняя граница
+-- блока, поэтому у столбца нет DEFAULT, и вставки в обход Hibernate должны задавать id явно.
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
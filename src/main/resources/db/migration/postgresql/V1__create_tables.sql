@@ -1,13 +1,7 @@
-DROP TABLE IF EXISTS comments CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
                                      id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
                                      name     VARCHAR(300),
-                                     email    VARCHAR(300) UNIQUE ,
+                                     email    VARCHAR(300),
                                      CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 CREATE TABLE IF NOT EXISTS requests
@@ -25,7 +19,7 @@ CREATE TABLE IF NOT EXISTS items (
                                      description  VARCHAR(1000),
                                      available    BOOLEAN NOT NULL,
                                      owner_id     BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL,
-                                     request_id  BIGINT REFERENCES requests (id) ON DELETE CASCADE NOT NULL
+                                     request_id   BIGINT REFERENCES requests (id) ON DELETE CASCADE
 );
 
 CREATE TABLE IF NOT EXISTS comments (
@@ -44,4 +38,4 @@ CREATE TABLE IF NOT EXISTS bookings (
                                         item_id    BIGINT REFERENCES items (id) ON DELETE CASCADE NOT NULL ,
                                         booker_id  BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL ,
                                         status     VARCHAR(300)
-);
\ No newline at end of file
+);
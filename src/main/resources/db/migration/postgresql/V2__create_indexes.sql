@@ -0,0 +1,45 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Схема, взятая под управление Flyway через baseline, создавалась Hibernate (ddl-auto=create)
+-- и допускала NULL в comments.created.
+UPDATE comments
+SET created = COALESCE((SELECT MAX(b.end_time)
+                        FROM bookings b
+                        WHERE b.item_id = comments.item_id
+                          AND b.booker_id = comments.author_id
+                          AND b.end_time < LOCALTIMESTAMP),
+                       LOCALTIMESTAMP)
+WHERE created IS NULL;
+ALTER TABLE comments ALTER COLUMN created SET NOT NULL;
+
+-- Пересекающиеся активные бронирования одной вещи не дадут создать ограничение ex_bookings_item_period.
+-- Остается подтвержденное бронирование, среди равных по статусу - созданное раньше; остальные отклоняются.
+UPDATE bookings
+SET status = 'REJECTED'
+WHERE status IN ('WAITING', 'APPROVED')
+  AND EXISTS (SELECT 1
+              FROM bookings o
+              WHERE o.item_id = bookings.item_id
+                AND o.id <> bookings.id
+                AND o.status IN ('WAITING', 'APPROVED')
+                AND o.start_time < bookings.end_time
+                AND o.end_time > bookings.start_time
+                AND (o.status = 'APPROVED' AND bookings.status = 'WAITING'
+                    OR o.status = bookings.status AND o.id < bookings.id));
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_time);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_time);
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created, id);
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (description gin_trgm_ops);
+
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1 @@
+CREATE UNIQUE INDEX IF NOT EXISTS uq_user_email_ci ON users (upper(email));
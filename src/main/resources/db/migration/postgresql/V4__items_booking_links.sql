@@ -0,0 +1,20 @@
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booking_id BIGINT REFERENCES bookings (id) ON DELETE SET NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_id BIGINT REFERENCES bookings (id) ON DELETE SET NULL;
+
+UPDATE items
+SET last_booking_id = (SELECT b.id
+                       FROM bookings b
+                       WHERE b.item_id = items.id
+                         AND b.status = 'APPROVED'
+                         AND b.start_time < LOCALTIMESTAMP
+                       ORDER BY b.end_time DESC
+                       LIMIT 1),
+    next_booking_id = (SELECT b.id
+                       FROM bookings b
+                       WHERE b.item_id = items.id
+                         AND b.status = 'APPROVED'
+                         AND b.start_time > LOCALTIMESTAMP
+                       ORDER BY b.start_time
+                       LIMIT 1);
+
+CREATE INDEX IF NOT EXISTS idx_items_next_booking_id ON items (next_booking_id) WHERE next_booking_id IS NOT NULL;
@@ -0,0 +1,7 @@
+-- id выдает только Hibernate (pooled, allocationSize = 50): значение последовательности - верхняя граница
+-- блока, поэтому у столбца нет DEFAULT, и вставки в обход Hibernate должны задавать id явно.
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+SELECT setval('items_seq', COALESCE(MAX(id), 0) + 50) FROM items;
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER SEQUENCE items_seq OWNED BY items.id;
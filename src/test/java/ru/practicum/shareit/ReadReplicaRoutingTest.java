@@ -0,0 +1,83 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary",
+        "shareit.datasource.replica.url=jdbc:h2:mem:replica"})
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "replica"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ReadReplicaRoutingTest {
+
+    private static final String DATABASE = "select database()";
+    private static final String INSERT_USER = "insert into users (id, name, email) values (1, 'Oleg', 'oleg@email.com')";
+    private static final String COUNT_ITEMS = "select count(*) from items";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MockMvc mvc;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertThat(readOnly.execute(status -> jdbcTemplate.queryForObject(DATABASE, String.class)),
+                equalTo("REPLICA"));
+        assertThat(readWrite.execute(status -> jdbcTemplate.queryForObject(DATABASE, String.class)),
+                equalTo("PRIMARY"));
+        assertThat(jdbcTemplate.queryForObject(DATABASE, String.class), equalTo("PRIMARY"));
+    }
+
+    @Test
+    void writesAfterReadOnlyLookupInRequestGoToPrimary() throws Exception {
+        Flyway.configure()
+                .dataSource(replicaDataSource)
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        jdbcTemplate.update(INSERT_USER);
+        replica.update(INSERT_USER);
+
+        mvc.perform(post("/items/import")
+                        .content("name,description,available\nМолоток,молоток забивной,true\n")
+                        .characterEncoding(UTF_8)
+                        .contentType("text/csv")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)));
+
+        assertThat(jdbcTemplate.queryForObject(COUNT_ITEMS, Integer.class), equalTo(1));
+        assertThat(replica.queryForObject(COUNT_ITEMS, Integer.class), equalTo(0));
+    }
+}
@@ -10,13 +10,19 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingBulkRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingExportFormat;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exceptions.InvalidBookingException;
 import ru.practicum.shareit.exceptions.ModelNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
@@ -35,8 +41,6 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
-import static ru.practicum.shareit.item.mapper.ItemMapper.toItem;
-import static ru.practicum.shareit.user.mapper.UserMapper.toUser;
 
 @WebMvcTest(controllers = BookingController.class)
 @AutoConfigureWebMvc
@@ -78,8 +82,8 @@ public class BookingControllerTest {
                 .id(1L)
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(10))
-                .booker(toUser(userDto))
-                .item(toItem(itemDto))
+                .booker(new BookerDto(userDto.getId(), userDto.getName()))
+                .item(new BookingItemDto(itemDto.getId(), itemDto.getName()))
                 .status(WAITING)
                 .build();
 
@@ -173,6 +177,35 @@ public class BookingControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(bookingDto)));
     }
 
+    @Test
+    void updateBookingsExpectedStatus200() throws Exception {
+        when(bookingService.updateBookings(anyList(), anyLong(), anyBoolean()))
+                .thenReturn(List.of(new BookingBulkResultDto(1L, APPROVED, null),
+                        new BookingBulkResultDto(2L, null, "Невозможно изменить статус бронирования.")));
+
+        mvc.perform(patch("/bookings/bulk?approved=true")
+                        .content(mapper.writeValueAsString(new BookingBulkRequestDto(List.of(1L, 2L))))
+                        .characterEncoding(UTF_8)
+                        .contentType(APPLICATION_JSON)
+                        .accept(APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].error", is("Невозможно изменить статус бронирования.")));
+    }
+
+    @Test
+    void updateBookingsWithEmptyIdsExpectedStatus400() throws Exception {
+        mvc.perform(patch("/bookings/bulk?approved=true")
+                        .content(mapper.writeValueAsString(new BookingBulkRequestDto(List.of())))
+                        .characterEncoding(UTF_8)
+                        .contentType(APPLICATION_JSON)
+                        .accept(APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void updateBookingExpectedStatus400() throws Exception {
         when(bookingService.updateBooking(anyLong(), anyLong(), anyBoolean()))
@@ -235,6 +268,38 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    void findByBookerReturnsNextCursorForFullPage() throws Exception {
+        when(bookingService.findByBooker(anyLong(), any(BookingState.class), anyInt(), anyInt()))
+                .thenReturn(List.of(bookingDto));
+
+        mvc.perform(get("/bookings?state=ALL&size=1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER,
+                        new Cursor(bookingDto.getStart(), bookingDto.getId()).encode()));
+    }
+
+    @Test
+    void findByBookerWithCursorExpectedStatus200() throws Exception {
+        when(bookingService.findByBooker(anyLong(), any(BookingState.class), any(Cursor.class), anyInt()))
+                .thenReturn(List.of(bookingDto));
+
+        mvc.perform(get("/bookings?state=ALL&size=2&cursor={cursor}",
+                        new Cursor(LocalDateTime.now(), 5L).encode())
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist(Cursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void findByBookerWithInvalidCursorExpectedStatus400() throws Exception {
+        mvc.perform(get("/bookings?state=ALL&cursor=!!!")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void findAllByBookerWithWrongFromExpectedStatus500() throws Exception {
         mvc.perform(get("/bookings?state=WAITING&from=-2&size=2")
@@ -317,4 +382,28 @@ public class BookingControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error", is("Not Found Exception")));
     }
+
+    @Test
+    void exportByOwnerAsCsvExpectedStatus200() throws Exception {
+        when(bookingService.exportByOwner(1L, BookingExportFormat.CSV))
+                .thenReturn(output -> output.write("id,start\n1,2022-01-01T10:00\n".getBytes(UTF_8)));
+
+        mvc.perform(get("/bookings/owner/export?format=CSV")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=bookings.csv"))
+                .andExpect(content().string("id,start\n1,2022-01-01T10:00\n"));
+    }
+
+    @Test
+    void exportByBookerExpectedStatus404() throws Exception {
+        when(bookingService.exportByBooker(anyLong(), any(BookingExportFormat.class)))
+                .thenThrow(new ModelNotFoundException("Not Found Exception"));
+
+        mvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Not Found Exception")));
+    }
 }
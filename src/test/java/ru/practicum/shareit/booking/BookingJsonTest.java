@@ -5,7 +5,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.json.JsonTest;
 import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.json.JsonContent;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 
 import java.time.LocalDateTime;
 
@@ -23,6 +25,8 @@ public class BookingJsonTest {
                 .id(1L)
                 .start(LocalDateTime.of(2022, 5, 6, 10, 30, 15))
                 .end(LocalDateTime.of(2022, 5, 10, 10, 30, 15))
+                .item(new BookingItemDto(2L, "Дрель"))
+                .booker(new BookerDto(3L, "Ivan"))
                 .build();
 
         JsonContent<BookingDto> result = json.write(bookingDto);
@@ -32,5 +36,9 @@ public class BookingJsonTest {
                 .isEqualTo(LocalDateTime.of(2022, 5, 6, 10, 30, 15).toString());
         assertThat(result).extractingJsonPathStringValue("$.end")
                 .isEqualTo(LocalDateTime.of(2022, 5, 10, 10, 30, 15).toString());
+        assertThat(result).extractingJsonPathNumberValue("$.item.id").isEqualTo(2);
+        assertThat(result).extractingJsonPathStringValue("$.item.name").isEqualTo("Дрель");
+        assertThat(result).doesNotHaveJsonPath("$.item.owner");
+        assertThat(result).extractingJsonPathNumberValue("$.booker.id").isEqualTo(3);
     }
 }
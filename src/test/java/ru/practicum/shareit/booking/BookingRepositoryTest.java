@@ -3,24 +3,48 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.Session;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
 import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.model.BookingStatus.REJECTED;
 import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.booking.CapturingStatementInspector")
 public class BookingRepositoryTest {
 
     @Autowired
@@ -32,6 +56,12 @@ public class BookingRepositoryTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private EntityManager em;
+
     private User user;
     private User user1;
     private Item item;
@@ -67,59 +97,58 @@ public class BookingRepositoryTest {
 
 
     @Test
-    void findAllByBookerIdOrderByStartDesc() {
+    void findAllByBooker() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat((long) bookingRepository.findAllByBookerIdOrderByStartDesc(user1.getId(),
-                Pageable.ofSize(10)).size(), equalTo(1L));
+        assertThat(bookingRepository.findAll(filter(BookingFilter.Role.BOOKER, user1.getId(), BookingState.ALL,
+                LocalDateTime.now())).size(), equalTo(1));
     }
 
     @Test
-    void findAllByBookerIdAndEndIsBeforeOrderByStartDesc() {
+    void findPastByBooker() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(user1.getId(),
-                LocalDateTime.now().plusDays(30), Pageable.ofSize(10)).size(), equalTo(1));
+        assertThat(bookingRepository.findAll(filter(BookingFilter.Role.BOOKER, user1.getId(), BookingState.PAST,
+                LocalDateTime.now().plusDays(30))).size(), equalTo(1));
     }
 
     @Test
-    void findAllByBookerIdAndStartIsAfterOrderByStartDesc() {
+    void findFutureByBooker() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(user1.getId(),
-                LocalDateTime.now().minusDays(10), Pageable.ofSize(10)).size(), equalTo(1));
+        assertThat(bookingRepository.findAll(filter(BookingFilter.Role.BOOKER, user1.getId(), BookingState.FUTURE,
+                LocalDateTime.now().minusDays(10))).size(), equalTo(1));
     }
 
     @Test
-    void findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc() {
+    void findCurrentByBooker() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(user1.getId(),
-                LocalDateTime.now().plusDays(30), LocalDateTime.now(), Pageable.ofSize(10)).size(), equalTo(1));
+        assertThat(bookingRepository.findAll(filter(BookingFilter.Role.BOOKER, user1.getId(), BookingState.CURRENT,
+                LocalDateTime.now().plusDays(15))).size(), equalTo(1));
     }
 
     @Test
-    void findAllByBookerIdAndStatusOrderByStartDesc() {
+    void findWaitingByBooker() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
-        booking.setStatus(APPROVED);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(user1.getId(),
-                APPROVED, Pageable.ofSize(10)).size(), equalTo(1));
+        assertThat(bookingRepository.findAll(filter(BookingFilter.Role.BOOKER, user1.getId(), BookingState.WAITING,
+                LocalDateTime.now())).size(), equalTo(1));
     }
 
     @Test
@@ -137,72 +166,268 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByItemOwnerIdOrderByStartDesc() {
+    void findAllByOwner() {
+        userRepository.save(user);
+        itemRepository.save(item);
+        userRepository.save(user1);
+        bookingRepository.save(booking);
+
+        assertThat(bookingRepository.findAll(filter(BookingFilter.Role.OWNER, user.getId(), BookingState.ALL,
+                LocalDateTime.now())).size(), equalTo(1));
+    }
+
+    @Test
+    void findPastByOwner() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(user.getId(),
-                Pageable.ofSize(10)).size(), equalTo(1));
+        assertThat(bookingRepository.findAll(filter(BookingFilter.Role.OWNER, user.getId(), BookingState.PAST,
+                LocalDateTime.now().plusDays(30))).size(), equalTo(1));
     }
 
     @Test
-    void findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc() {
+    void findFutureByOwner() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(user.getId(),
-                LocalDateTime.now().plusDays(30), Pageable.ofSize(10)).size(), equalTo(1));
+        assertThat(bookingRepository.findAll(filter(BookingFilter.Role.OWNER, user.getId(), BookingState.FUTURE,
+                LocalDateTime.now().minusDays(10))).size(), equalTo(1));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc() {
+    void findCurrentByOwner() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(user.getId(),
-                LocalDateTime.now().minusDays(10), Pageable.ofSize(10)).size(), equalTo(1));
+        assertThat(bookingRepository.findAll(filter(BookingFilter.Role.OWNER, user.getId(), BookingState.CURRENT,
+                LocalDateTime.now().plusDays(15))).size(), equalTo(1));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc() {
+    void findWaitingByOwner() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(user.getId(),
-                LocalDateTime.now().plusDays(30), LocalDateTime.now(), Pageable.ofSize(10)).size(), equalTo(1));
+        assertThat(bookingRepository.findAll(filter(BookingFilter.Role.OWNER, user.getId(), BookingState.WAITING,
+                LocalDateTime.now())).size(), equalTo(1));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStatusOrderByStartDesc() {
+    void existsByBookerIdAndItemIdAndStatusAndEndIsBefore() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         booking.setStatus(APPROVED);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(user.getId(),
-                APPROVED, Pageable.ofSize(10)).size(), equalTo(1));
+        assertThat(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndIsBefore(user1.getId(),
+                item.getId(), APPROVED, LocalDateTime.now().plusDays(30)), equalTo(true));
+        assertThat(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndIsBefore(user1.getId(),
+                item.getId(), APPROVED, LocalDateTime.now()), equalTo(false));
     }
 
     @Test
-    void findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore() {
+    void findLastAndNextBookingsByItemIds() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
+
+        Booking past = Booking.builder()
+                .start(LocalDateTime.now().minusDays(5))
+                .end(LocalDateTime.now().minusDays(3))
+                .item(item)
+                .booker(user1)
+                .status(APPROVED)
+                .build();
+        Booking waiting = Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(user1)
+                .status(WAITING)
+                .build();
         booking.setStatus(APPROVED);
+        bookingRepository.saveAll(List.of(past, waiting, booking));
+
+        List<Booking> last = bookingRepository.findLastBookingsByItemIds(Set.of(item.getId()), APPROVED,
+                LocalDateTime.now());
+        List<Booking> next = bookingRepository.findNextBookingsByItemIds(Set.of(item.getId()), APPROVED,
+                LocalDateTime.now());
+
+        assertThat(last.size(), equalTo(1));
+        assertThat(last.get(0).getId(), equalTo(past.getId()));
+        assertThat(next.size(), equalTo(1));
+        assertThat(next.get(0).getId(), equalTo(booking.getId()));
+    }
+
+    @Test
+    void bookingQueriesUseIndexes() {
+        userRepository.save(user);
+        itemRepository.save(item);
+        userRepository.save(user1);
+        bookingRepository.save(booking);
+        itemRequestRepository.save(ItemRequest.builder()
+                .description("нужен молоток")
+                .requester(user1)
+                .created(LocalDateTime.now())
+                .build());
+        em.flush();
+        CapturingStatementInspector.drain();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (BookingFilter.Role role : BookingFilter.Role.values()) {
+            Long userId = role == BookingFilter.Role.BOOKER ? user1.getId() : user.getId();
+            for (BookingState state : BookingState.values()) {
+                bookingRepository.findAll(filter(role, userId, state, now));
+            }
+            bookingRepository.findAll(BookingFilter.builder()
+                    .role(role)
+                    .userId(userId)
+                    .state(BookingState.ALL)
+                    .cursor(new Cursor(booking.getStart(), booking.getId()))
+                    .size(10)
+                    .build());
+        }
+        bookingRepository.findLastBookingsByItemIds(Set.of(item.getId()), APPROVED, now);
+        bookingRepository.findNextBookingsByItemIds(Set.of(item.getId()), APPROVED, now);
+        bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(item.getId(),
+                List.of(WAITING, APPROVED), now.plusDays(1), now);
+        itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(user.getId(), 0L, PageRequest.of(0, 10));
+        itemRequestRepository.findAllByRequesterIdOrderByCreatedAsc(user1.getId());
+        // чужие запросы (requester_id <> ?) - почти вся таблица, для них скан ожидаем
+        itemRequestRepository.findAllByRequesterIdNotOrderByCreatedAscIdAsc(user1.getId(), PageRequest.of(0, 10));
+
+        List<String> queries = CapturingStatementInspector.drain().stream()
+                .filter(sql -> sql.trim().startsWith("select"))
+                .filter(sql -> !sql.contains("<>"))
+                .distinct()
+                .collect(Collectors.toList());
+
+        assertThat(queries.size(), greaterThan(10));
+        em.unwrap(Session.class).doWork(connection -> {
+            for (String query : queries) {
+                try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + query)) {
+                    bindSampleParameters(explain, now);
+                    try (ResultSet plan = explain.executeQuery()) {
+                        plan.next();
+                        assertThat(query, plan.getString(1), not(containsString("tableScan")));
+                    }
+                }
+            }
+        });
+    }
+
+    private static void bindSampleParameters(PreparedStatement statement, LocalDateTime now) throws SQLException {
+        ParameterMetaData parameters = statement.getParameterMetaData();
+        for (int i = 1; i <= parameters.getParameterCount(); i++) {
+            switch (parameters.getParameterType(i)) {
+                case Types.TIMESTAMP:
+                    statement.setTimestamp(i, Timestamp.valueOf(now));
+                    break;
+                case Types.VARCHAR:
+                    statement.setString(i, WAITING.name());
+                    break;
+                default:
+                    statement.setLong(i, 1L);
+            }
+        }
+    }
+
+    @Test
+    void findRejectedByOwnerAfterCursor() {
+        userRepository.save(user);
+        itemRepository.save(item);
+        userRepository.save(user1);
+        booking.setStatus(REJECTED);
         bookingRepository.save(booking);
+        Booking later = bookingRepository.save(Booking.builder()
+                .start(booking.getStart().plusDays(20))
+                .end(booking.getEnd().plusDays(20))
+                .item(item)
+                .booker(user1)
+                .status(REJECTED)
+                .build());
+
+        List<BookingDto> first = bookingRepository.findAll(BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(user.getId())
+                .state(BookingState.REJECTED)
+                .now(LocalDateTime.now())
+                .size(1)
+                .build());
+        List<BookingDto> second = bookingRepository.findAll(BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(user.getId())
+                .state(BookingState.REJECTED)
+                .now(LocalDateTime.now())
+                .cursor(new Cursor(first.get(0).getStart(), first.get(0).getId()))
+                .size(10)
+                .build());
+
+        assertThat(first.get(0).getId(), equalTo(later.getId()));
+        assertThat(second.size(), equalTo(1));
+        assertThat(second.get(0).getId(), equalTo(booking.getId()));
+        assertThat(bookingRepository.findAll(filter(BookingFilter.Role.OWNER, user.getId(), BookingState.WAITING,
+                LocalDateTime.now())).size(), equalTo(0));
+    }
 
-        assertThat(bookingRepository.findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(user1.getId(),
-                        item.getId(), APPROVED, LocalDateTime.now().plusDays(30)).size(),
-                equalTo(1));
+    @Test
+    void offsetAndCursorPagesAgreeOnTiedStart() {
+        userRepository.save(user);
+        itemRepository.save(item);
+        userRepository.save(user1);
+        for (int i = 0; i < 3; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(booking.getStart())
+                    .end(booking.getEnd().minusDays(i))
+                    .item(item)
+                    .booker(user1)
+                    .status(WAITING)
+                    .build());
+        }
+
+        List<Long> byOffset = new ArrayList<>();
+        List<Long> byCursor = new ArrayList<>();
+        Cursor cursor = null;
+        for (int page = 0; page < 3; page++) {
+            byOffset.add(bookingRepository.findAll(BookingFilter.builder()
+                    .role(BookingFilter.Role.BOOKER)
+                    .userId(user1.getId())
+                    .state(BookingState.ALL)
+                    .offset(page)
+                    .size(1)
+                    .build()).get(0).getId());
+            BookingDto next = bookingRepository.findAll(BookingFilter.builder()
+                    .role(BookingFilter.Role.BOOKER)
+                    .userId(user1.getId())
+                    .state(BookingState.ALL)
+                    .cursor(cursor)
+                    .size(1)
+                    .build()).get(0);
+            byCursor.add(next.getId());
+            cursor = new Cursor(next.getStart(), next.getId());
+        }
+
+        assertThat(byCursor, equalTo(byOffset));
+        assertThat(byOffset.get(0), greaterThan(byOffset.get(1)));
+        assertThat(byOffset.get(1), greaterThan(byOffset.get(2)));
     }
 
+    private BookingFilter filter(BookingFilter.Role role, Long userId, BookingState state, LocalDateTime now) {
+        return BookingFilter.builder()
+                .role(role)
+                .userId(userId)
+                .state(state)
+                .now(now)
+                .size(10)
+                .build();
+    }
 }
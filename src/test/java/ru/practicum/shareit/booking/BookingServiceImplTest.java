@@ -1,34 +1,52 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBulkResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingExportFormat;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.InvalidBookingException;
 import ru.practicum.shareit.exceptions.ModelNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.hamcrest.Matchers.nullValue;
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
 
-@SpringBootTest
+@SpringBootTest(properties = "shareit.bookings.cache.bucket=1h")
 @AutoConfigureTestDatabase
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -38,6 +56,9 @@ public class BookingServiceImplTest {
     private final BookingService bookingService;
     private final UserService userService;
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
     private final LocalDateTime timestamp1 = LocalDateTime.of(2022, 11, 20, 10, 30);
     private final LocalDateTime timestamp2 = LocalDateTime.of(2022, 11, 22, 11, 30);
     private BookingRequestDto bookingRequestDto;
@@ -91,6 +112,82 @@ public class BookingServiceImplTest {
         assertThat(booking.getStatus(), equalTo(WAITING));
     }
 
+    @Test
+    void failCreatingOverlappingBooking() {
+        bookingService.createBooking(2L, bookingRequestDto);
+
+        BookingRequestDto overlapping = BookingRequestDto
+                .builder()
+                .start(timestamp1.plusHours(1))
+                .end(timestamp2.plusDays(1))
+                .itemId(1L)
+                .build();
+
+        InvalidBookingException e = assertThrows(InvalidBookingException.class,
+                () -> bookingService.createBooking(2L, overlapping));
+        assertThat(e.getMessage(), equalTo("Вещь c id 1 уже забронирована на этот период"));
+    }
+
+    @Test
+    void updateBookingsInBulk() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto first = bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(start).end(start.plusHours(1)).itemId(1L).build());
+        BookingDto second = bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(start.plusHours(2)).end(start.plusHours(3)).itemId(1L).build());
+        bookingService.updateBooking(second.getId(), 1L, true);
+
+        List<BookingBulkResultDto> results = bookingService.updateBookings(
+                List.of(first.getId(), second.getId(), 99L), 1L, true);
+
+        assertThat(results.size(), equalTo(3));
+        assertThat(results.get(0).getStatus(), equalTo(APPROVED));
+        assertThat(results.get(0).getError(), nullValue());
+        assertThat(results.get(1).getStatus(), nullValue());
+        assertThat(results.get(1).getError(), equalTo("Невозможно изменить статус бронирования."));
+        assertThat(results.get(2).getError(), equalTo("Бронирование на найдено!."));
+        assertThat(bookingService.findBookingByUserId(first.getId(), 1L).getStatus(), equalTo(APPROVED));
+    }
+
+    @Test
+    void concurrentApprovalsKeepEarliestNextBooking() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto later = bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(start.plusHours(2)).end(start.plusHours(3)).itemId(1L).build());
+        BookingDto earlier = bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(start).end(start.plusHours(1)).itemId(1L).build());
+        CountDownLatch laterApproved = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    bookingService.updateBooking(later.getId(), 1L, true);
+                    laterApproved.countDown();
+                    try {
+                        // второе подтверждение успевает дойти до блокировки вещи
+                        Thread.sleep(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        laterApproved.await(5, TimeUnit.SECONDS);
+        bookingService.updateBooking(earlier.getId(), 1L, true);
+        first.get(5, TimeUnit.SECONDS);
+
+        assertThat(itemService.getItemByUserId(1L, 1L).getNextBooking().getId(), equalTo(earlier.getId()));
+    }
+
+    @Test
+    void updateBookingsInBulkSkipsForeignBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(start).end(start.plusHours(1)).itemId(1L).build());
+
+        List<BookingBulkResultDto> results = bookingService.updateBookings(List.of(booking.getId()), 2L, false);
+
+        assertThat(results.get(0).getError(), equalTo("Невозможно забронировать вещь"));
+        assertThat(bookingService.findBookingByUserId(booking.getId(), 1L).getStatus(), equalTo(WAITING));
+    }
+
     @Test
     void failCreatingBookingWithSameOwner() {
         ModelNotFoundException e = assertThrows(ModelNotFoundException.class,
@@ -201,6 +298,28 @@ public class BookingServiceImplTest {
         assertThat(bookings.get(0).getId(), equalTo(1L));
     }
 
+    @Test
+    void findAllByBookerAfterCursor() {
+        bookingService.createBooking(2L, bookingRequestDto);
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(timestamp2.plusDays(1))
+                .end(timestamp2.plusDays(2))
+                .itemId(1L)
+                .build());
+
+        List<BookingDto> first = bookingService.findByBooker(2L, BookingState.ALL, 0, 1);
+        BookingDto last = first.get(0);
+        List<BookingDto> second = bookingService.findByBooker(2L, BookingState.ALL,
+                new Cursor(last.getStart(), last.getId()), 1);
+        List<BookingDto> third = bookingService.findByBooker(2L, BookingState.ALL,
+                new Cursor(second.get(0).getStart(), second.get(0).getId()), 1);
+
+        assertThat(last.getId(), equalTo(2L));
+        assertThat(second.size(), equalTo(1));
+        assertThat(second.get(0).getId(), equalTo(1L));
+        assertThat(third.size(), equalTo(0));
+    }
+
     @Test
     void findAllByBookerFailByWrongState() {
         bookingService.createBooking(2L, bookingRequestDto);
@@ -217,6 +336,81 @@ public class BookingServiceImplTest {
         assertThat(e.getMessage(), equalTo("Неверный ID пользователя"));
     }
 
+    @Test
+    void findAllByBookerUsesConstantNumberOfStatements() throws Exception {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        bookingService.createBooking(2L, bookingRequestDto);
+        statistics.clear();
+        objectMapper.writeValueAsString(bookingService.findByBooker(2L, BookingState.ALL, 0, 10));
+        long statementsForOneBooking = statistics.getPrepareStatementCount();
+
+        for (long i = 3; i <= 5; i++) {
+            userService.createUser(UserDto.builder()
+                    .name("Owner " + i)
+                    .email("owner" + i + "@email.com")
+                    .build());
+            ItemDto itemDto = itemService.createItem(i, ItemDto.builder()
+                    .name("item " + i)
+                    .description("description " + i)
+                    .available(true)
+                    .build());
+            bookingService.createBooking(2L, BookingRequestDto.builder()
+                    .start(timestamp1)
+                    .end(timestamp2)
+                    .itemId(itemDto.getId())
+                    .build());
+        }
+        statistics.clear();
+        List<BookingDto> bookings = bookingService.findByBooker(2L, BookingState.ALL, 0, 10);
+        objectMapper.writeValueAsString(bookings);
+
+        assertThat(bookings.size(), equalTo(4));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(statementsForOneBooking));
+    }
+
+    @Test
+    void findAllByBookerServedFromCacheUntilBookingsChange() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        bookingService.createBooking(2L, bookingRequestDto);
+        bookingService.findByBooker(2L, BookingState.ALL, 0, 10);
+        statistics.clear();
+        List<BookingDto> cached = bookingService.findByBooker(2L, BookingState.ALL, 0, 10);
+
+        assertThat(cached.size(), equalTo(1));
+        assertThat(statistics.getQueryExecutionCount(), equalTo(0L));
+
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(timestamp2.plusDays(1))
+                .end(timestamp2.plusDays(2))
+                .itemId(1L)
+                .build());
+
+        assertThat(bookingService.findByBooker(2L, BookingState.ALL, 0, 10).size(), equalTo(2));
+        assertThat(bookingService.findByOwner(1L, BookingState.ALL, 0, 10).size(), equalTo(2));
+    }
+
+    @Test
+    void cachedBookingsFollowRenamesAndUserDeletion() {
+        bookingService.createBooking(2L, bookingRequestDto);
+        bookingService.findByBooker(2L, BookingState.ALL, 0, 10);
+        bookingService.findByOwner(1L, BookingState.ALL, 0, 10);
+
+        itemService.updateItem(1L, ItemDto.builder().name("new name").build(), 1L);
+        userService.updateUser(2L, UserDto.builder().name("Ivan").build());
+
+        BookingDto booking = bookingService.findByBooker(2L, BookingState.ALL, 0, 10).get(0);
+        assertThat(booking.getItem().getName(), equalTo("new name"));
+        assertThat(booking.getBooker().getName(), equalTo("Ivan"));
+
+        userService.deleteUser(2L);
+
+        assertThat(bookingService.findByOwner(1L, BookingState.ALL, 0, 10).size(), equalTo(0));
+    }
+
     @Test
     void findAllByOwnerByStateAndStatus() {
         bookingService.createBooking(2L, bookingRequestDto);
@@ -289,4 +483,60 @@ public class BookingServiceImplTest {
                 () -> bookingService.findByOwner(10L, BookingState.valueOf("ALL"), 0, 2));
         assertThat(e.getMessage(), equalTo("Неверный ID пользователя"));
     }
+
+    @Test
+    void exportByOwnerAsNdjson() throws IOException {
+        bookingService.createBooking(2L, bookingRequestDto);
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(timestamp2.plusDays(1))
+                .end(timestamp2.plusDays(2))
+                .itemId(1L)
+                .build());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookingService.exportByOwner(1L, BookingExportFormat.NDJSON).writeTo(output);
+
+        String[] lines = output.toString(UTF_8).split("\n");
+        assertThat(lines.length, equalTo(2));
+        BookingDto latest = objectMapper.readValue(lines[0], BookingDto.class);
+        assertThat(latest.getId(), equalTo(2L));
+        assertThat(latest.getItem().getName(), equalTo("name"));
+        assertThat(latest.getBooker().getName(), equalTo("Roman"));
+        assertThat(objectMapper.readValue(lines[1], BookingDto.class).getId(), equalTo(1L));
+    }
+
+    @Test
+    void exportStreamIsTimedUntilClosed() throws IOException {
+        bookingService.createBooking(2L, bookingRequestDto);
+        bookingService.exportByOwner(1L, BookingExportFormat.NDJSON);
+
+        assertThat(meterRegistry.find("shareit.repository").tag("method", "streamAllByItemOwnerId").timer(),
+                nullValue());
+
+        bookingService.exportByOwner(1L, BookingExportFormat.NDJSON).writeTo(new ByteArrayOutputStream());
+
+        assertThat(meterRegistry.get("shareit.repository").tags("class", "BookingRepository",
+                "method", "streamAllByItemOwnerId", "exception", "none").timer().count(), equalTo(1L));
+        assertThat(meterRegistry.get("shareit.repository.rows").tags("class", "BookingRepository",
+                "method", "streamAllByItemOwnerId").summary().totalAmount(), equalTo(1.0));
+    }
+
+    @Test
+    void exportByBookerAsCsv() throws IOException {
+        bookingService.createBooking(2L, bookingRequestDto);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookingService.exportByBooker(2L, BookingExportFormat.CSV).writeTo(output);
+
+        assertThat(output.toString(UTF_8), equalTo("id,start,end,status,itemId,itemName,bookerId,bookerName\n"
+                + "1," + timestamp1 + "," + timestamp2 + ",WAITING,1,name,2,Roman\n"));
+    }
+
+    @Test
+    void failExportWithWrongUserId() {
+        ModelNotFoundException e = assertThrows(ModelNotFoundException.class,
+                () -> bookingService.exportByOwner(20L, BookingExportFormat.CSV));
+
+        assertThat(e.getMessage(), equalTo("Неверный ID пользователя"));
+    }
 }
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.controller.ReactiveBookingController;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.ReactiveBookingRepository;
+import ru.practicum.shareit.config.ClockConfig;
+import ru.practicum.shareit.user.repository.ReactiveUserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
+
+@WebMvcTest(controllers = ReactiveBookingController.class)
+@AutoConfigureWebMvc
+@ActiveProfiles({"test", "reactive"})
+@Import(ClockConfig.class)
+public class ReactiveBookingControllerTest {
+
+    @MockBean
+    private ReactiveBookingRepository bookingRepository;
+
+    @MockBean
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private MockMvc mvc;
+
+    private final LocalDateTime start = LocalDateTime.of(2022, 11, 20, 10, 0);
+
+    @Test
+    void findByBookerAsJson() throws Exception {
+        when(userRepository.existsById(2L)).thenReturn(Mono.just(true));
+        when(bookingRepository.findAll(argThat(filter -> filter.getRole() == BookingFilter.Role.BOOKER
+                && filter.getOffset() == 2 && filter.getSize() == 2)))
+                .thenReturn(Flux.just(booking(1L), booking(2L)));
+
+        MvcResult result = mvc.perform(get("/reactive/bookings?from=2&size=2")
+                        .header("X-Sharer-User-Id", 2L)
+                        .accept(APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].item.name", is("Дрель")))
+                .andExpect(jsonPath("$[1].booker.name", is("Roman")));
+    }
+
+    @Test
+    void findByOwnerAsNdjson() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(Mono.just(true));
+        when(bookingRepository.findAll(argThat(filter -> filter.getRole() == BookingFilter.Role.OWNER)))
+                .thenReturn(Flux.just(booking(1L), booking(2L)));
+
+        MvcResult result = mvc.perform(get("/reactive/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(result.getResponse().getContentType(), equalTo(APPLICATION_NDJSON.toString()));
+        assertThat(lines.length, equalTo(2));
+        assertThat(lines[1].startsWith("{\"id\":2,"), equalTo(true));
+    }
+
+    @Test
+    void findByUnknownBookerExpectedStatus404() throws Exception {
+        when(userRepository.existsById(20L)).thenReturn(Mono.just(false));
+        when(bookingRepository.findAll(any())).thenReturn(Flux.empty());
+
+        MvcResult result = mvc.perform(get("/reactive/bookings")
+                        .header("X-Sharer-User-Id", 20L)
+                        .accept(APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Неверный ID пользователя.")));
+    }
+
+    private BookingDto booking(Long id) {
+        return new BookingDto(id, start.plusDays(id), start.plusDays(id).plusHours(1), WAITING,
+                1L, "Дрель", 2L, "Roman");
+    }
+}
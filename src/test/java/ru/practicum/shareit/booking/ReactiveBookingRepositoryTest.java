@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.ReactiveBookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ReactiveItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.ReactiveUserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive"})
+@ActiveProfiles({"test", "reactive"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext
+public class ReactiveBookingRepositoryTest {
+
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ReactiveBookingRepository reactiveBookingRepository;
+    private final ReactiveItemRepository reactiveItemRepository;
+    private final ReactiveUserRepository reactiveUserRepository;
+    private final LocalDateTime timestamp = LocalDateTime.of(2022, 11, 20, 10, 30);
+
+    @Test
+    void readsMatchServletApi() {
+        userService.createUser(UserDto.builder().name("Oleg").email("oleg@email.com").build());
+        userService.createUser(UserDto.builder().name("Roman").email("roman@email.com").build());
+        itemService.createItem(1L, ItemDto.builder()
+                .name("Дрель")
+                .description("дрель ударная")
+                .available(true)
+                .build());
+        itemService.createItem(1L, ItemDto.builder()
+                .name("Молоток")
+                .description("к дрели не подходит")
+                .available(true)
+                .build());
+        for (int i = 0; i < 3; i++) {
+            bookingService.createBooking(2L, BookingRequestDto.builder()
+                    .start(timestamp.plusDays(i))
+                    .end(timestamp.plusDays(i).plusHours(1))
+                    .itemId(1L)
+                    .build());
+        }
+
+        for (BookingFilter.Role role : BookingFilter.Role.values()) {
+            for (BookingState state : List.of(BookingState.ALL, BookingState.PAST, BookingState.WAITING)) {
+                List<BookingDto> expected = role == BookingFilter.Role.BOOKER
+                        ? bookingService.findByBooker(2L, state, 1, 1)
+                        : bookingService.findByOwner(1L, state, 1, 1);
+                List<BookingDto> actual = reactiveBookingRepository.findAll(BookingFilter.builder()
+                                .role(role)
+                                .userId(role == BookingFilter.Role.BOOKER ? 2L : 1L)
+                                .state(state)
+                                .now(LocalDateTime.now())
+                                .offset(1)
+                                .size(1)
+                                .build())
+                        .collectList()
+                        .block();
+
+                assertThat(ids(actual), equalTo(ids(expected)));
+                assertThat(actual.get(0).getStart(), equalTo(expected.get(0).getStart()));
+                assertThat(actual.get(0).getItem().getName(), equalTo("Дрель"));
+                assertThat(actual.get(0).getBooker().getName(), equalTo("Roman"));
+                assertThat(actual.get(0).getStatus(), equalTo(expected.get(0).getStatus()));
+            }
+        }
+
+        List<ItemDto> expected = itemService.search("ДРЕЛ", 0, 20);
+        List<ItemDto> actual = reactiveItemRepository.search("дрел", 0, 20).collectList().block();
+
+        assertThat(actual.stream().map(ItemDto::getId).collect(Collectors.toList()),
+                equalTo(expected.stream().map(ItemDto::getId).collect(Collectors.toList())));
+        assertThat(reactiveUserRepository.existsById(2L).block(), equalTo(true));
+        assertThat(reactiveUserRepository.existsById(20L).block(), equalTo(false));
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+}
@@ -10,6 +10,7 @@ import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @SpringBootTest
@@ -17,6 +18,7 @@ public class CommentMapperTest {
     private Comment comment;
     private CommentDto commentDto;
     private List<CommentDto> commentsDto;
+    private final LocalDateTime created = LocalDateTime.of(2022, 11, 20, 10, 30);
 
     @BeforeEach
     void before() {
@@ -43,7 +45,7 @@ public class CommentMapperTest {
                 .authorName("Ivan")
                 .build();
 
-        comment = CommentMapper.toComment(commentDto, user, item);
+        comment = CommentMapper.toComment(commentDto, user, item, created);
         commentsDto = CommentMapper.getCommentDtoList(List.of(comment));
     }
 
@@ -53,6 +55,7 @@ public class CommentMapperTest {
         Assertions.assertEquals(comment.getId(), commentDto.getId());
         Assertions.assertEquals(comment.getText(), commentDto.getText());
         Assertions.assertEquals(comment.getAuthor().getName(), commentDto.getAuthorName());
+        Assertions.assertEquals(created, comment.getCreated());
     }
 
     @Test
@@ -4,24 +4,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.comment.dto.ItemCommentView;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.request.model.ItemRequest;
-import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
-import static org.hamcrest.Matchers.hasItem;
 
 @DataJpaTest
 public class CommentRepositoryTest {
@@ -34,15 +32,9 @@ public class CommentRepositoryTest {
     @Autowired
     private CommentRepository commentRepository;
 
-    @Autowired
-    private ItemRequestRepository itemRequestRepository;
-
-
     private User user;
     private User user1;
     private Item item;
-    private Comment comment;
-    private ItemRequest itemRequest;
 
     @BeforeEach
     void init() {
@@ -63,64 +55,53 @@ public class CommentRepositoryTest {
                 .available(true)
                 .owner(user)
                 .build();
-
-        itemRequest = ItemRequest
-                .builder()
-                .description("описание запроса")
-                .requester(user)
-                .created(LocalDateTime.now())
-                .build();
-
-        comment = Comment.builder()
-                .text("комментарий")
-                .item(item)
-                .author(user1)
-                .created(LocalDateTime.now())
-                .build();
-
     }
 
-
     @Test
-    void findCommentsByItemId() {
-        userRepository.save(user1);
+    void findPageByItemIdAfterCursor() {
         userRepository.save(user);
-        itemRequest.setRequester(user);
-        itemRequestRepository.save(itemRequest);
-        item.setRequest(itemRequest);
+        userRepository.save(user1);
         itemRepository.save(item);
-
-        Comment comment1 = Comment.builder()
-                .text("комментарий 1")
-                .item(item)
-                .author(user1)
-                .created(LocalDateTime.now())
-                .build();
-        Comment comment2 = Comment.builder()
-                .text("комментарий 2")
-                .item(item)
-                .author(user1)
-                .created(LocalDateTime.now())
-                .build();
-
-        commentRepository.saveAll(Arrays.asList(comment1, comment2));
-
-        Set<Long> itemIds = new HashSet<>();
-        itemIds.add(item.getId());
-
-        Set<Comment> comments = commentRepository.findCommentsByItemId(itemIds);
-
-        assertThat(comments.size(), equalTo(2));
-        assertThat(comments.stream().map(Comment::getItem).collect(Collectors.toSet()), hasItem(item));
+        LocalDateTime created = LocalDateTime.of(2022, 12, 1, 10, 0);
+        List<Comment> comments = commentRepository.saveAllAndFlush(List.of(
+                Comment.builder().text("первый").item(item).author(user1).created(created).build(),
+                Comment.builder().text("второй").item(item).author(user1).created(created).build(),
+                Comment.builder().text("третий").item(item).author(user1).created(created.plusHours(1)).build()));
+
+        List<Comment> first = commentRepository.findPageByItemId(item.getId(), PageRequest.of(0, 2));
+        Comment last = first.get(first.size() - 1);
+        List<Comment> second = commentRepository.findPageByItemIdAfterCursor(item.getId(), last.getCreated(),
+                last.getId(), PageRequest.of(0, 2));
+
+        assertThat(first.stream().map(Comment::getText).collect(Collectors.toList()),
+                equalTo(List.of("третий", "второй")));
+        assertThat(second.size(), equalTo(1));
+        assertThat(second.get(0).getId(), equalTo(comments.get(0).getId()));
+        assertThat(second.get(0).getAuthor().getName(), equalTo("Ivan"));
     }
 
     @Test
-    void findAllByItemId() {
+    void findLatestAndCountByItemIds() {
         userRepository.save(user);
         userRepository.save(user1);
         itemRepository.save(item);
-        commentRepository.save(comment);
-
-        assertThat(commentRepository.findAllByItemId(item.getId()).size(), equalTo(1));
+        LocalDateTime created = LocalDateTime.of(2022, 12, 1, 10, 0);
+        for (int i = 0; i < 3; i++) {
+            commentRepository.save(Comment.builder()
+                    .text("комментарий " + i)
+                    .item(item)
+                    .author(user1)
+                    .created(created.plusMinutes(i))
+                    .build());
+        }
+        commentRepository.flush();
+
+        List<ItemCommentView> latest = commentRepository.findLatestByItemIds(Set.of(item.getId()), 2);
+
+        assertThat(latest.stream().map(ItemCommentView::getText).collect(Collectors.toList()),
+                equalTo(List.of("комментарий 2", "комментарий 1")));
+        assertThat(latest.get(0).getAuthorName(), equalTo("Ivan"));
+        assertThat(latest.get(0).getCreated(), equalTo(created.plusMinutes(2)));
+        assertThat(commentRepository.countByItemIds(Set.of(item.getId())).get(0).getTotal(), equalTo(3L));
     }
 }
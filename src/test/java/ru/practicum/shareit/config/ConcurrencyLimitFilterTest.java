@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(0, Duration.ZERO,
+            List.of("/actuator/**", "/bookings/export", "/bookings/owner/export"));
+
+    @Test
+    void limitedRequestWithoutPermitIsRejected() throws Exception {
+        assertThat(status("/bookings"), equalTo(503));
+    }
+
+    @Test
+    void actuatorAndExportAreNotLimited() throws Exception {
+        assertThat(status("/actuator/prometheus"), equalTo(200));
+        assertThat(status("/bookings/export"), equalTo(200));
+        assertThat(status("/bookings/owner/export"), equalTo(200));
+    }
+
+    private int status(String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -14,15 +14,21 @@ import ru.practicum.shareit.exceptions.ModelNotFoundException;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportFormat;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -259,4 +265,52 @@ public class ItemControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error", is("Пользователь не может оставить отзыв об этой вещи")));
     }
+
+    @Test
+    void importItemsFromCsvExpectedStatus200() throws Exception {
+        when(itemService.importItems(eq(1L), eq(ItemImportFormat.CSV), any()))
+                .thenReturn(new ItemImportResultDto(1, List.of(new ItemImportErrorDto(3, "Неверный ID запроса."))));
+
+        mvc.perform(post("/items/import")
+                        .content("name,description,available,requestId\nМолоток,молоток забивной,true,\n"
+                                + "Дрель,дрель ударная,true,99\n")
+                        .characterEncoding(UTF_8)
+                        .contentType("text/csv")
+                        .accept(APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)))
+                .andExpect(jsonPath("$.errors[0].error", is("Неверный ID запроса.")));
+    }
+
+    @Test
+    void getCommentsReturnsNextCursorForFullPage() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2022, 12, 1, 10, 0);
+        commentDto.setCreated(created);
+        when(itemService.getComments(eq(2L), isNull(), eq(1)))
+                .thenReturn(List.of(commentDto));
+
+        mvc.perform(get("/items/{id}/comments", 2)
+                        .param("size", "1")
+                        .accept(APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].text", is(commentDto.getText())))
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER, new Cursor(created, 1L).encode()));
+    }
+
+    @Test
+    void getCommentsWithInvalidSizeExpectedStatus400() throws Exception {
+        for (String size : List.of("0", "-1", "101")) {
+            mvc.perform(get("/items/{id}/comments", 2)
+                            .param("size", size)
+                            .accept(APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isBadRequest());
+        }
+        verifyNoInteractions(itemService);
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -78,47 +79,66 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    void findAllByItemOwnerId() {
+    void searchRanksNameMatchesFirst() {
         userRepository.save(user);
-        itemRepository.save(item);
+        Item byDescription = Item.builder()
+                .name("Гвоздодер")
+                .description("выдергивает гвозди, забитые молотком")
+                .available(true)
+                .owner(user)
+                .build();
+        Item unavailable = Item.builder()
+                .name("Молоток сломанный")
+                .description("без рукоятки")
+                .available(false)
+                .owner(user)
+                .build();
+        itemRepository.saveAll(List.of(byDescription, unavailable, item));
 
-        Page<Item> items = itemRepository.findAllByOwnerIdOrderById(user.getId(), Pageable.ofSize(10));
+        Page<Item> items = itemRepository.search("молот", Pageable.ofSize(10));
 
-        assertThat(items.stream().count(), equalTo(1L));
+        assertThat(items.getTotalElements(), equalTo(2L));
+        assertThat(items.getContent().get(0).getId(), equalTo(item.getId()));
+        assertThat(items.getContent().get(1).getId(), equalTo(byDescription.getId()));
     }
 
     @Test
-    void findAllByRequestId() {
+    void searchTreatsWildcardsLiterally() {
         userRepository.save(user);
-        itemRequest.setRequester(user);
-        itemRequestRepository.save(itemRequest);
+        itemRepository.save(item);
 
-        item.setRequest(itemRequest);
+        assertThat(itemRepository.search("%", Pageable.ofSize(10)).getTotalElements(), equalTo(0L));
+    }
+
+    @Test
+    void findAllByItemOwnerId() {
+        userRepository.save(user);
         itemRepository.save(item);
 
-        List<Item> items = itemRepository.findAllByRequestId(itemRequest.getId());
+        Page<Item> items = itemRepository.findAllByOwnerIdOrderById(user.getId(), Pageable.ofSize(10));
 
-        assertThat(items.size(), equalTo(1));
-        assertThat(items.get(0).getId(), equalTo(item.getId()));
+        assertThat(items.stream().count(), equalTo(1L));
     }
 
     @Test
-    void findAllByRequestIn() {
+    void findItemDtosByRequestIds() {
         userRepository.save(user);
-        itemRequest.setRequester(user);
         itemRequestRepository.save(itemRequest);
 
         item.setRequest(itemRequest);
         itemRepository.save(item);
+        itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("дрель без запроса")
+                .available(true)
+                .owner(user)
+                .build());
 
-        List<ItemRequest> requests = new ArrayList<>();
-        requests.add(itemRequest);
-
-        List<Item> items = itemRepository.findAllByRequestIn(requests);
+        List<ItemDto> items = itemRepository.findItemDtosByRequestIds(List.of(itemRequest.getId()));
 
         assertThat(items.size(), equalTo(1));
         assertThat(items.get(0).getId(), equalTo(item.getId()));
+        assertThat(items.get(0).getName(), equalTo(item.getName()));
+        assertThat(items.get(0).getRequestId(), equalTo(itemRequest.getId()));
     }
-
-
 }
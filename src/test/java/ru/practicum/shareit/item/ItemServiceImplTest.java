@@ -1,27 +1,45 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.TransactionSystemException;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.InvalidBookingException;
 import ru.practicum.shareit.exceptions.ModelNotFoundException;
 import ru.practicum.shareit.exceptions.UserHaveNotAccessException;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemBookingsRefresher;
+import ru.practicum.shareit.item.service.ItemImportFormat;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -35,6 +53,10 @@ public class ItemServiceImplTest {
     private final EntityManager em;
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemBookingsRefresher itemBookingsRefresher;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
 
 
     private final UserDto userDto = UserDto
@@ -135,6 +157,17 @@ public class ItemServiceImplTest {
         assertThat("надежней чем молоток", equalTo(itemDto.getDescription()));
     }
 
+    @Test
+    void failUpdatingItemWithBlankName() {
+        userService.createUser(userDto);
+        itemService.createItem(1L, itemDto);
+
+        itemDto.setName(" ");
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> itemService.updateItem(1L, itemDto, 1L));
+        assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+    }
+
     @Test
     void failUpdatingItemWithWrongUserId() {
         userService.createUser(userDto);
@@ -178,6 +211,85 @@ public class ItemServiceImplTest {
         assertThat(items.get(0).getName(), equalTo("Молоток"));
     }
 
+    @Test
+    void getItemByOwnerWithApprovedBookingRolledOver() {
+        userService.createUser(userDto);
+        userService.createUser(UserDto.builder().name("Ivan").email("ivan@yandex.ru").build());
+        itemService.createItem(1L, itemDto);
+        BookingDto booking = bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(1L)
+                .build());
+        bookingService.updateBooking(booking.getId(), 1L, true);
+
+        ItemDto item = itemService.getItemByUserId(1L, 1L);
+        assertThat(item.getLastBooking(), nullValue());
+        assertThat(item.getNextBooking().getId(), equalTo(booking.getId()));
+
+        jdbcTemplate.update("update bookings set start_time = ?, end_time = ? where id = ?",
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), booking.getId());
+        item = itemService.getItemByUserId(1L, 1L);
+        assertThat(item.getLastBooking().getId(), equalTo(booking.getId()));
+        assertThat(item.getNextBooking(), nullValue());
+
+        itemBookingsRefresher.rollover();
+        Map<String, Object> links = jdbcTemplate.queryForMap(
+                "select last_booking_id, next_booking_id from items where id = 1");
+        assertThat(links.get("last_booking_id"), equalTo(booking.getId()));
+        assertThat(links.get("next_booking_id"), nullValue());
+    }
+
+    @Test
+    void saveCommentAfterFinishedBooking() {
+        userService.createUser(userDto);
+        userService.createUser(UserDto.builder().name("Ivan").email("ivan@yandex.ru").build());
+        itemService.createItem(1L, itemDto);
+        BookingDto booking = bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(1L)
+                .build());
+        bookingService.updateBooking(booking.getId(), 1L, true);
+
+        assertThrows(InvalidBookingException.class, () -> itemService.saveComment(1L, 2L, commentDto));
+
+        jdbcTemplate.update("update bookings set start_time = ?, end_time = ? where id = ?",
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), booking.getId());
+        CommentDto saved = itemService.saveComment(1L, 2L, commentDto);
+
+        ItemDto item = itemService.getItemByUserId(1L, 2L);
+        assertThat(saved.getAuthorName(), equalTo("Ivan"));
+        assertThat(item.getCommentsCount(), equalTo(1L));
+        assertThat(item.getComments().get(0).getId(), equalTo(saved.getId()));
+        assertThat(item.getComments().get(0).getText(), equalTo("новый комментарий"));
+    }
+
+    @Test
+    void cachedCommentsFollowAuthorChanges() {
+        userService.createUser(userDto);
+        userService.createUser(UserDto.builder().name("Ivan").email("ivan@yandex.ru").build());
+        itemService.createItem(1L, itemDto);
+        BookingDto booking = bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(1L)
+                .build());
+        bookingService.updateBooking(booking.getId(), 1L, true);
+        jdbcTemplate.update("update bookings set start_time = ?, end_time = ? where id = ?",
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), booking.getId());
+        itemService.saveComment(1L, 2L, commentDto);
+        assertThat(itemService.getItemByUserId(1L, 1L).getComments().get(0).getAuthorName(), equalTo("Ivan"));
+
+        userService.updateUser(2L, UserDto.builder().name("Иван").build());
+        assertThat(itemService.getItemByUserId(1L, 1L).getComments().get(0).getAuthorName(), equalTo("Иван"));
+
+        userService.deleteUser(2L);
+        ItemDto item = itemService.getItemByUserId(1L, 1L);
+        assertThat(item.getCommentsCount(), equalTo(0L));
+        assertThat(item.getComments().size(), equalTo(0));
+    }
+
     @Test
     void failToGetItemByIdWrongItem() {
         ModelNotFoundException e = assertThrows(ModelNotFoundException.class,
@@ -213,4 +325,61 @@ public class ItemServiceImplTest {
 
         assertThat(e.getMessage(), equalTo("Неверный ID пользователя."));
     }
+
+    @Test
+    void importItemsReportsRowErrors() {
+        userService.createUser(userDto);
+        String ndjson = "{\"name\":\"Молоток\",\"description\":\"молоток забивной\",\"available\":true}\n"
+                + "{\"name\":\"\",\"description\":\"без названия\",\"available\":true}\n"
+                + "\n"
+                + "{\"name\":\"Дрель\",\"description\":\"дрель ударная\",\"available\":true,\"requestId\":20}\n"
+                + "не json\n"
+                + "{\"name\":\"Пила\",\"description\":\"пила ручная\",\"available\":false}\n";
+
+        ItemImportResultDto result = itemService.importItems(1L, ItemImportFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(UTF_8)));
+
+        assertThat(result.getImported(), equalTo(2));
+        assertThat(result.getErrors().stream().map(ItemImportErrorDto::getLine).collect(Collectors.toList()),
+                equalTo(List.of(2L, 4L, 5L)));
+        assertThat(result.getErrors().get(1).getError(), equalTo("Неверный ID запроса."));
+        assertThat(itemService.getItemListByUserId(1L, 0, 10).stream().map(ItemDto::getName)
+                .collect(Collectors.toList()), equalTo(List.of("Молоток", "Пила")));
+    }
+
+    @Test
+    void importItemsFromCsv() {
+        userService.createUser(userDto);
+        String csv = "name,description,available\n"
+                + "\"Молоток, большой\",\"молоток \"\"забивной\"\"\",true\n"
+                + "Пила,пила ручная,нет\n";
+
+        ItemImportResultDto result = itemService.importItems(1L, ItemImportFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(UTF_8)));
+
+        assertThat(result.getImported(), equalTo(1));
+        assertThat(result.getErrors().size(), equalTo(1));
+        assertThat(result.getErrors().get(0).getLine(), equalTo(3L));
+
+        ItemDto imported = itemService.getItemListByUserId(1L, 0, 10).get(0);
+        assertThat(imported.getName(), equalTo("Молоток, большой"));
+        assertThat(imported.getDescription(), equalTo("молоток \"забивной\""));
+    }
+
+    @Test
+    void serviceAndRepositoryCallsAreTimed() {
+        userService.createUser(userDto);
+        itemService.createItem(1L, itemDto);
+        itemService.getItemListByUserId(1L, 0, 10);
+        assertThrows(ModelNotFoundException.class, () -> itemService.createItem(20L, itemDto));
+
+        assertThat(meterRegistry.get("shareit.service").tags("class", "ItemServiceImpl",
+                "method", "createItem", "exception", "none").timer().count(), equalTo(1L));
+        assertThat(meterRegistry.get("shareit.service").tags("class", "ItemServiceImpl",
+                "method", "createItem", "exception", "ModelNotFoundException").timer().count(), equalTo(1L));
+        assertThat(meterRegistry.get("shareit.repository").tag("class", "ItemRepository").timers().size(),
+                greaterThan(0));
+        assertThat(meterRegistry.get("shareit.repository.rows").tag("class", "ItemRepository").summaries()
+                .stream().mapToDouble(summary -> summary.totalAmount()).sum(), greaterThan(0.0));
+    }
 }
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.sql.budget=0")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ExtendWith(OutputCaptureExtension.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class SqlStatementsInterceptorTest {
+
+    private final MockMvc mvc;
+    private final MeterRegistry meterRegistry;
+    private final UserService userService;
+    private final ItemService itemService;
+
+    @Test
+    void requestOverBudgetIsMeasuredAndReported(CapturedOutput output) throws Exception {
+        userService.createUser(UserDto.builder().name("Petr").email("petr@yandex.ru").build());
+        itemService.createItem(1L, ItemDto.builder()
+                .name("Молоток")
+                .description("молоток забивной")
+                .available(true)
+                .build());
+
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get(SqlStatementsInterceptor.STATEMENTS)
+                .tag("method", "GET").tag("uri", "/items").summary().totalAmount(), greaterThan(0.0));
+        assertThat(meterRegistry.get(SqlStatementsInterceptor.TIME)
+                .tag("method", "GET").tag("uri", "/items").timer().count(), equalTo(1L));
+        assertThat(meterRegistry.get(SqlStatementsInterceptor.BUDGET_EXCEEDED)
+                .tag("method", "GET").tag("uri", "/items").counter().count(), equalTo(1.0));
+        assertThat(output.getOut().lines()
+                .anyMatch(line -> line.contains("WARN") && line.contains(SqlStatementsInterceptor.class.getSimpleName())
+                        && line.contains("GET /items")), equalTo(true));
+    }
+
+    @Test
+    void statementsAreCountedBetweenStartAndFinish() {
+        userService.createUser(UserDto.builder().name("Petr").email("petr@yandex.ru").build());
+
+        SqlStatementStats.start();
+        itemService.getItemListByUserId(1L, 0, 10);
+        SqlStatementStats stats = SqlStatementStats.finish();
+
+        assertThat(stats.getStatements(), greaterThan(0));
+        assertThat(stats.getNanos(), greaterThan(0L));
+        assertThat(SqlStatementStats.finish(), nullValue());
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -12,10 +13,12 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
 
 @DataJpaTest
 public class ItemRequestRepositoryTest {
@@ -66,12 +69,68 @@ public class ItemRequestRepositoryTest {
         userRepository.save(user);
         itemRequestRepository.save(itemRequest);
 
-        assertThat((long) itemRequestRepository.findAllByRequesterIdNotOrderByCreatedAsc(user.getId(),
+        assertThat((long) itemRequestRepository.findAllByRequesterIdNotOrderByCreatedAscIdAsc(user.getId(),
                 Pageable.ofSize(10)).size(), equalTo(0L));
 
         userRepository.save(user1);
 
-        assertThat((long) itemRequestRepository.findAllByRequesterIdNotOrderByCreatedAsc(user1.getId(),
+        assertThat((long) itemRequestRepository.findAllByRequesterIdNotOrderByCreatedAscIdAsc(user1.getId(),
                 Pageable.ofSize(10)).size(), equalTo(1L));
     }
+
+    @Test
+    void findAllByRequesterIdNotAfterCursorTest() {
+        userRepository.save(user);
+        userRepository.save(user1);
+        LocalDateTime created = LocalDateTime.of(2022, 12, 1, 10, 0);
+        ItemRequest first = itemRequestRepository.save(ItemRequest.builder()
+                .description("первый")
+                .requester(user)
+                .created(created)
+                .build());
+        ItemRequest second = itemRequestRepository.save(ItemRequest.builder()
+                .description("второй")
+                .requester(user)
+                .created(created)
+                .build());
+
+        List<ItemRequest> page = itemRequestRepository.findAllByRequesterIdNotAfterCursor(user1.getId(),
+                first.getCreated(), first.getId(), Pageable.ofSize(10));
+
+        assertThat(page.size(), equalTo(1));
+        assertThat(page.get(0).getId(), equalTo(second.getId()));
+    }
+
+    @Test
+    void offsetAndCursorPagesAgreeOnTiedCreated() {
+        userRepository.save(user);
+        userRepository.save(user1);
+        LocalDateTime created = LocalDateTime.of(2022, 12, 1, 10, 0);
+        for (int i = 0; i < 3; i++) {
+            itemRequestRepository.save(ItemRequest.builder()
+                    .description("запрос " + i)
+                    .requester(user)
+                    .created(created)
+                    .build());
+        }
+
+        List<Long> byOffset = new ArrayList<>();
+        List<Long> byCursor = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            byOffset.add(itemRequestRepository.findAllByRequesterIdNotOrderByCreatedAscIdAsc(user1.getId(),
+                    PageRequest.of(page, 1)).get(0).getId());
+        }
+        ItemRequest next = itemRequestRepository.findAllByRequesterIdNotOrderByCreatedAscIdAsc(user1.getId(),
+                PageRequest.of(0, 1)).get(0);
+        byCursor.add(next.getId());
+        for (int page = 1; page < 3; page++) {
+            next = itemRequestRepository.findAllByRequesterIdNotAfterCursor(user1.getId(), next.getCreated(),
+                    next.getId(), PageRequest.of(0, 1)).get(0);
+            byCursor.add(next.getId());
+        }
+
+        assertThat(byCursor, equalTo(byOffset));
+        assertThat(byOffset.get(0), lessThan(byOffset.get(1)));
+        assertThat(byOffset.get(1), lessThan(byOffset.get(2)));
+    }
 }
@@ -1,12 +1,18 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exceptions.EmailAlreadyExistException;
 import ru.practicum.shareit.exceptions.ModelNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -26,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class UserServiceImplTest {
     private final EntityManager em;
     private final UserService service;
+    private final ItemService itemService;
 
     @Test
     void createUser() {
@@ -43,6 +50,43 @@ public class UserServiceImplTest {
         assertThat(user.getEmail(), equalTo(userDto.getEmail()));
     }
 
+    @Test
+    void getUserByIdHitsSecondLevelCache() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        UserDto userDto = service.createUser(new UserDto(1L, "Petr", "petr@yandex.ru"));
+        service.getUserById(userDto.getId());
+
+        statistics.clear();
+        service.getUserById(userDto.getId());
+        service.getUserById(userDto.getId());
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(statistics.getSecondLevelCacheHitCount(), equalTo(2L));
+
+        service.updateUser(userDto.getId(), new UserDto(null, "Pavel", null));
+
+        assertThat(service.getUserById(userDto.getId()).getName(), equalTo("Pavel"));
+    }
+
+    @Test
+    void failCreatingUserWithTakenEmail() {
+        service.createUser(new UserDto(null, "Ivan", "ivan@yandex.ru"));
+
+        EmailAlreadyExistException e = assertThrows(EmailAlreadyExistException.class,
+                () -> service.createUser(new UserDto(null, "Ivan", "ivan@yandex.ru")));
+        assertThat(e.getMessage(), equalTo("Электронная почта уже зарегистрирована!"));
+    }
+
+    @Test
+    void failUpdatingUserWithTakenEmailIgnoringCase() {
+        service.createUser(new UserDto(null, "Ivan", "ivan@yandex.ru"));
+        UserDto petr = service.createUser(new UserDto(null, "Petr", "petr@yandex.ru"));
+
+        assertThrows(EmailAlreadyExistException.class,
+                () -> service.updateUser(petr.getId(), new UserDto(null, null, "IVAN@yandex.ru")));
+    }
+
     @Test
     void updateUser() {
 
@@ -101,6 +145,22 @@ public class UserServiceImplTest {
         assertThat(1, equalTo(service.findAllUsers().size()));
     }
 
+    @Test
+    void deleteUserEvictsCascadedItemsAfterCommit() {
+        service.createUser(new UserDto(1L, "Oleg", "oleg@yandex.ru"));
+        ItemDto item = itemService.createItem(1L, ItemDto.builder()
+                .name("Молоток")
+                .description("молоток забивной")
+                .available(true)
+                .build());
+        itemService.getItemByUserId(item.getId(), 1L);
+
+        service.deleteUser(1L);
+
+        assertThat(em.getEntityManagerFactory().getCache().contains(Item.class, item.getId()), equalTo(false));
+        assertThrows(ModelNotFoundException.class, () -> itemService.getItemByUserId(item.getId(), 1L));
+    }
+
     @Test
     void getAllUsers() {
 